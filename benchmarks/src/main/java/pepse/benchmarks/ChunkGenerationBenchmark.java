@@ -0,0 +1,59 @@
+package pepse.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pepse.world.chunks.WorldChunkManager;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * This class benchmarks the data phase of the chunks generation (ground heights, tree placement and trees
+ * data) of a world of the given width - the work Terrain.createInRange and Tree.createInRange did before the
+ * world was split into chunks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChunkGenerationBenchmark {
+
+    @Param({"8400", "84000"})
+    public int worldWidth;
+
+    private WorldFixture worldFixture;
+    private int chunksCount;
+
+
+    /**
+     * This method builds the world generators.
+     */
+    @Setup
+    public void setUp() {
+        worldFixture = new WorldFixture();
+        chunksCount = (int) Math.ceil((double) worldWidth / WorldChunkManager.CHUNK_WIDTH);
+    }
+
+    /**
+     * @param blackhole - consumes the chunks data.
+     */
+    @Benchmark
+    public void generateChunks(Blackhole blackhole) {
+        for (int chunkIndex = 0; chunkIndex < chunksCount; chunkIndex++) {
+            blackhole.consume(worldFixture.chunkGenerator.generate(chunkIndex));
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+package pepse.benchmarks;
+
+import danogl.util.Vector2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.HeadlessDriver;
+import pepse.InputScript;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * This class benchmarks a whole frame update of the game (the avatar update, the chunks loading and
+ * unloading, the trees creation, the leaves tick and the collisions) by the headless driver, while the avatar
+ * runs right through the world - so the frames include the streaming of new chunks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FrameBenchmark {
+
+    // Constants
+    // long enough for any run of the benchmark
+    private static final String RUN_RIGHT_SCRIPT = "right:100000000";
+
+    @Param({"1280", "2560"})
+    public int windowWidth;
+
+    private HeadlessDriver headlessDriver;
+
+
+    /**
+     * This method builds the world of the game.
+     */
+    @Setup
+    public void setUp() {
+        headlessDriver = new HeadlessDriver(new InputScript(RUN_RIGHT_SCRIPT),
+                new Vector2(windowWidth, windowWidth * 9 / 16f));
+    }
+
+    /**
+     * This method steps a single frame.
+     */
+    @Benchmark
+    public void frame() {
+        headlessDriver.step();
+    }
+
+    /**
+     * This method closes the game, so the chunks generation pool of every trial is shut down.
+     */
+    @TearDown
+    public void tearDown() {
+        headlessDriver.gameManager().close();
+    }
+
+}
@@ -0,0 +1,70 @@
+package pepse.benchmarks;
+
+import danogl.util.Vector2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.world.Block;
+import pepse.world.trees.Leaf;
+import pepse.world.trees.LeafSystem;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * This class benchmarks a single life cycle tick of the given number of leaves, spread over a world of the
+ * given width (so only part of them is near the camera and animated every frame).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LeafSystemBenchmark {
+
+    // Constants
+    private static final float DELTA_TIME = 1 / 60f;
+    private static final float GROUND_HEIGHT = 600;
+    private static final float LEAVES_TOP = 100;
+    private static final int LEAVES_ROWS = 10;
+
+    @Param({"1000", "10000", "100000"})
+    public int leavesCount;
+
+    @Param({"8400", "84000"})
+    public int worldWidth;
+
+    private LeafSystem leafSystem;
+
+
+    /**
+     * This method adds the leaves to a new leaf system.
+     */
+    @Setup
+    public void setUp() {
+        leafSystem = new LeafSystem(x -> GROUND_HEIGHT, WorldFixture.SEED);
+        for (int i = 0; i < leavesCount; i++) {
+            float x = (float) i / leavesCount * worldWidth;
+            float y = LEAVES_TOP + (i % LEAVES_ROWS) * Block.SIZE;
+            leafSystem.addLeaf(new Leaf(new Vector2(x, y), null));
+        }
+    }
+
+    /**
+     * This method runs a single tick, the camera is at the left edge of the world.
+     */
+    @Benchmark
+    public void tick() {
+        leafSystem.update(DELTA_TIME, 0, WorldFixture.WINDOW_DIMENSIONS.x());
+    }
+
+}
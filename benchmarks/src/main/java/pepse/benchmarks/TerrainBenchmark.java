@@ -0,0 +1,93 @@
+package pepse.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pepse.world.Block;
+import pepse.world.Terrain;
+import pepse.world.TerrainNoise;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * This class benchmarks the ground heights of a world of the given width - the scalar path
+ * (Terrain.groundHeightAt of every column, no chunk is loaded so every height is computed) against the batch
+ * path the chunks generation uses (Terrain.fillColumnsHeights), and the same two paths of the bare terrain
+ * noise (TerrainNoise.noiseAt against TerrainNoise.fillColumnsNoise).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TerrainBenchmark {
+
+    @Param({"8400", "84000"})
+    public int worldWidth;
+
+    private WorldFixture worldFixture;
+    private TerrainNoise terrainNoise;
+    private float[] heights;
+
+
+    /**
+     * This method builds the world generators.
+     */
+    @Setup
+    public void setUp() {
+        worldFixture = new WorldFixture();
+        terrainNoise = new TerrainNoise(WorldFixture.SEED, Block.SIZE, Terrain.TERRAIN_GRADIENT,
+                TerrainNoise.SineMode.EXACT);
+        heights = new float[worldWidth / Block.SIZE];
+    }
+
+    /**
+     * @param blackhole - consumes the heights.
+     */
+    @Benchmark
+    public void groundHeightAt(Blackhole blackhole) {
+        for (int x = 0; x < worldWidth; x += Block.SIZE) {
+            blackhole.consume(worldFixture.terrain.groundHeightAt(x));
+        }
+    }
+
+    /**
+     * @return float array - the heights of all the columns of the world.
+     */
+    @Benchmark
+    public float[] fillColumnsHeights() {
+        worldFixture.terrain.fillColumnsHeights(0, heights, 0, heights.length);
+        return heights;
+    }
+
+    /**
+     * @param blackhole - consumes the noise numbers.
+     */
+    @Benchmark
+    public void noiseAt(Blackhole blackhole) {
+        for (int x = 0; x < worldWidth; x += Block.SIZE) {
+            blackhole.consume(terrainNoise.noiseAt(x));
+        }
+    }
+
+    /**
+     * @return float array - the noise numbers of all the columns of the world.
+     */
+    @Benchmark
+    public float[] fillColumnsNoise() {
+        terrainNoise.fillColumnsNoise(0, heights, 0, heights.length);
+        return heights;
+    }
+
+}
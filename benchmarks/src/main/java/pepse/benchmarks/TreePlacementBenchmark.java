@@ -0,0 +1,65 @@
+package pepse.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.world.trees.TreePlacement;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * This class benchmarks the tree placement of a world of the given width and tree density (the
+ * probability of a column to be a tree candidate), with the chunks bitsets cache (the steady state of the
+ * game) and without it (every chunk is computed).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TreePlacementBenchmark {
+
+    // Constants
+    private static final int MIN_DISTANCE_IN_BLOCKS = 7;
+    private static final int NO_EXCLUDED_X_COORD = Integer.MIN_VALUE;
+
+    @Param({"8400", "84000"})
+    public int worldWidth;
+
+    @Param({"0.0333", "0.1", "0.3"})
+    public float treeDensity;
+
+    @Param({"true", "false"})
+    public boolean isCached;
+
+    private TreePlacement treePlacement;
+
+
+    /**
+     * This method builds the tree placement.
+     */
+    @Setup
+    public void setUp() {
+        treePlacement = new TreePlacement(WorldFixture.SEED, MIN_DISTANCE_IN_BLOCKS, treeDensity,
+                NO_EXCLUDED_X_COORD, isCached ? TreePlacement.DEFAULT_MAX_CACHED_CHUNKS : 0);
+    }
+
+    /**
+     * @return int array - the x coordinates of the trees of the world.
+     */
+    @Benchmark
+    public int[] treesInRange() {
+        return treePlacement.treesInRange(0, worldWidth);
+    }
+
+}
@@ -0,0 +1,64 @@
+package pepse.benchmarks;
+
+import danogl.util.Vector2;
+import pepse.util.ColorPalette;
+import pepse.world.Block;
+import pepse.world.StaticCollisionGrid;
+import pepse.world.Terrain;
+import pepse.world.chunks.ChunkGenerator;
+import pepse.world.chunks.ChunkObjectRegistry;
+import pepse.world.chunks.WorldChunkManager;
+import pepse.world.tiles.ChunkTextureCache;
+import pepse.world.tiles.TileMap;
+import pepse.world.trees.LeafPool;
+import pepse.world.trees.LeafSystem;
+import pepse.world.trees.Tree;
+
+import java.util.concurrent.Executor;
+
+
+/**
+ * This class builds the generation side of the world (terrain, trees and the chunks generator) the same
+ * way PepseGameManager does, without a game objects collection - enough for the data phase of the chunks,
+ * which doesn't touch the game.
+ */
+final class WorldFixture {
+
+    // Constants
+    static final int SEED = 1234;
+    static final Vector2 WINDOW_DIMENSIONS = new Vector2(1280, 720);
+    private static final int TILES_LAYER = 0;
+    private static final float TILE_MAP_DEPTH_FACTOR = 2;
+    // the benchmarks generate chunks without unloading them, so the cache keeps the images of the last ones
+    private static final int MAX_TEXTURES_COUNT = 16;
+    // the data phase runs on the benchmark thread
+    private static final Executor CALLER_EXECUTOR = Runnable::run;
+
+    // Data members
+    final Terrain terrain;
+    final Tree tree;
+    final ChunkGenerator chunkGenerator;
+
+
+    /**
+     * This is the Ctor of the class, builds the world generators.
+     */
+    WorldFixture() {
+        LeafPool leafPool = new LeafPool();
+        ColorPalette colorPalette = new ColorPalette(SEED);
+        ChunkObjectRegistry chunkObjectRegistry =
+                new ChunkObjectRegistry(null, leafPool, new StaticCollisionGrid());
+        int tileMapRowsCount = (int) Math.ceil(WINDOW_DIMENSIONS.y() * TILE_MAP_DEPTH_FACTOR / Block.SIZE);
+        ChunkTextureCache textureCache = new ChunkTextureCache(CALLER_EXECUTOR,
+                ChunkTextureCache.maxTexturesBytesFor(MAX_TEXTURES_COUNT,
+                        WorldChunkManager.CHUNK_WIDTH_IN_BLOCKS, tileMapRowsCount));
+        TileMap tileMap = new TileMap(chunkObjectRegistry, TILES_LAYER, tileMapRowsCount, textureCache,
+                colorPalette);
+        this.terrain = new Terrain(tileMap, WINDOW_DIMENSIONS, SEED);
+        LeafSystem leafSystem = new LeafSystem(terrain::groundHeightAt, SEED);
+        this.tree = new Tree(WINDOW_DIMENSIONS, chunkObjectRegistry, leafPool, leafSystem, tileMap,
+                colorPalette, SEED);
+        this.chunkGenerator = new ChunkGenerator(terrain, tree, tileMap, CALLER_EXECUTOR);
+    }
+
+}
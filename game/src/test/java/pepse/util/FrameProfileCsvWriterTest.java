@@ -0,0 +1,56 @@
+package pepse.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+class FrameProfileCsvWriterTest {
+
+    private static final String HEADER = "time_ms,phase,count,p50_us,p99_us,p999_us,max_us";
+    // a row per phase, a row of the whole update and a row of the time between the updates
+    private static final int ROWS_PER_WINDOW = FrameProfiler.Phase.values().length + 2;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendingWriterKeepsTheRowsOfTheClosedOne() throws IOException {
+        Path path = directory.resolve("frames.csv");
+        FrameProfileCsvWriter frameProfileCsvWriter = new FrameProfileCsvWriter(path,
+                FrameProfileCsvWriter.DEFAULT_MAX_FILE_BYTES, false);
+        frameProfileCsvWriter.onWindow(new FrameProfiler().drainWindow());
+        frameProfileCsvWriter.close();
+        // closing again, and handing a window over after the closing, do nothing
+        frameProfileCsvWriter.close();
+        frameProfileCsvWriter.onWindow(new FrameProfiler().drainWindow());
+        frameProfileCsvWriter = new FrameProfileCsvWriter(path, FrameProfileCsvWriter.DEFAULT_MAX_FILE_BYTES,
+                true);
+        frameProfileCsvWriter.onWindow(new FrameProfiler().drainWindow());
+        frameProfileCsvWriter.close();
+        List<String> lines = Files.readAllLines(path);
+        assertEquals(1 + 2 * ROWS_PER_WINDOW, lines.size());
+        assertEquals(HEADER, lines.get(0));
+        assertEquals(1, lines.stream().filter(HEADER::equals).count());
+    }
+
+    @Test
+    void newWriterStartsTheFileAgain() throws IOException {
+        Path path = directory.resolve("frames.csv");
+        Files.write(path, List.of("stale row"));
+        FrameProfileCsvWriter frameProfileCsvWriter = new FrameProfileCsvWriter(path,
+                FrameProfileCsvWriter.DEFAULT_MAX_FILE_BYTES, false);
+        frameProfileCsvWriter.onWindow(new FrameProfiler().drainWindow());
+        frameProfileCsvWriter.close();
+        List<String> lines = Files.readAllLines(path);
+        assertEquals(1 + ROWS_PER_WINDOW, lines.size());
+        assertEquals(HEADER, lines.get(0));
+    }
+
+}
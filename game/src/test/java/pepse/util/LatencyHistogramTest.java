@@ -0,0 +1,76 @@
+package pepse.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class LatencyHistogramTest {
+
+    // the buckets of a power of two range are 1/16 of its start wide
+    private static final double MAX_RELATIVE_ERROR = 1 / 16.0;
+    private static final long MAX_VALUE = (1L << 40) - 1;
+
+    @Test
+    void smallValuesAreExact() {
+        for (long value = 0; value < 32; value++) {
+            LatencyHistogram latencyHistogram = new LatencyHistogram();
+            latencyHistogram.record(value);
+            latencyHistogram.record(MAX_VALUE);
+            assertEquals(value, latencyHistogram.drain().valueAtPercentile(50));
+        }
+    }
+
+    @Test
+    void bucketsBoundTheRelativeError() {
+        for (long value = 32; value < MAX_VALUE; value = value * 3 / 2 + 1) {
+            LatencyHistogram latencyHistogram = new LatencyHistogram();
+            latencyHistogram.record(value);
+            latencyHistogram.record(MAX_VALUE);
+            long bucketValue = latencyHistogram.drain().valueAtPercentile(50);
+            assertTrue(bucketValue >= value, "value " + value);
+            assertTrue(bucketValue - value <= value * MAX_RELATIVE_ERROR, "value " + value);
+        }
+    }
+
+    @Test
+    void percentilesOfUniformValues() {
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        for (long value = 1; value <= 10000; value++) latencyHistogram.record(value);
+        LatencyHistogram.Snapshot snapshot = latencyHistogram.drain();
+        assertEquals(10000, snapshot.count());
+        assertEquals(10000, snapshot.max());
+        assertEquals(5000, snapshot.valueAtPercentile(50), 5000 * MAX_RELATIVE_ERROR);
+        assertEquals(9900, snapshot.valueAtPercentile(99), 9900 * MAX_RELATIVE_ERROR);
+        assertEquals(1, snapshot.valueAtPercentile(0));
+        // the top bucket is capped by the max counted value
+        assertEquals(10000, snapshot.valueAtPercentile(100));
+    }
+
+    @Test
+    void valuesOutOfRangeAreClamped() {
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        latencyHistogram.record(-5);
+        latencyHistogram.record(Long.MAX_VALUE);
+        LatencyHistogram.Snapshot snapshot = latencyHistogram.drain();
+        assertEquals(0, snapshot.valueAtPercentile(50));
+        assertEquals(MAX_VALUE, snapshot.max());
+        assertEquals(MAX_VALUE, snapshot.valueAtPercentile(100));
+    }
+
+    @Test
+    void drainClearsTheHistogram() {
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        latencyHistogram.record(1000);
+        latencyHistogram.record(2000);
+        assertEquals(2, latencyHistogram.drain().count());
+        LatencyHistogram.Snapshot snapshot = latencyHistogram.drain();
+        assertEquals(0, snapshot.count());
+        assertEquals(0, snapshot.max());
+        assertEquals(0, snapshot.valueAtPercentile(99));
+        latencyHistogram.record(7);
+        assertEquals(7, latencyHistogram.drain().valueAtPercentile(50));
+    }
+
+}
@@ -0,0 +1,64 @@
+package pepse.world;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+class TerrainNoiseTest {
+
+    private static final int SEED = 1234;
+    private static final int GRADIENT = 800;
+    private static final int FIRST_COLUMN = -700;
+    private static final int COLUMNS_COUNT = 1400;
+    private static final int OFFSET = 3;
+    private static final double LOOKUP_TABLE_TOLERANCE = 1e-4;
+
+    @Test
+    void exactBatchIsBitIdenticalToScalar() {
+        TerrainNoise terrainNoise = createTerrainNoise(TerrainNoise.SineMode.EXACT);
+        float[] noises = fillColumnsNoise(terrainNoise, FIRST_COLUMN, COLUMNS_COUNT);
+        for (int i = 0; i < COLUMNS_COUNT; i++) {
+            float scalarNoise = terrainNoise.noiseAt((FIRST_COLUMN + i) * Block.SIZE);
+            assertEquals(Float.floatToIntBits(scalarNoise), Float.floatToIntBits(noises[OFFSET + i]),
+                    "column " + (FIRST_COLUMN + i));
+        }
+    }
+
+    @Test
+    void reusedScratchGivesTheSameNoises() {
+        TerrainNoise terrainNoise = createTerrainNoise(TerrainNoise.SineMode.EXACT);
+        float[] longRangeNoises = fillColumnsNoise(terrainNoise, FIRST_COLUMN, COLUMNS_COUNT);
+        int shortRangeCount = COLUMNS_COUNT / 7;
+        int shortRangeFirstColumn = FIRST_COLUMN + COLUMNS_COUNT / 2;
+        float[] shortRangeNoises = fillColumnsNoise(terrainNoise, shortRangeFirstColumn, shortRangeCount);
+        for (int i = 0; i < shortRangeCount; i++) {
+            assertEquals(Float.floatToIntBits(longRangeNoises[OFFSET + COLUMNS_COUNT / 2 + i]),
+                    Float.floatToIntBits(shortRangeNoises[OFFSET + i]));
+        }
+    }
+
+    @Test
+    void lookupTableBatchIsCloseToExact() {
+        float[] exactNoises = fillColumnsNoise(createTerrainNoise(TerrainNoise.SineMode.EXACT),
+                FIRST_COLUMN, COLUMNS_COUNT);
+        TerrainNoise lookupTableNoise = createTerrainNoise(TerrainNoise.SineMode.LOOKUP_TABLE);
+        float[] lookupTableNoises = fillColumnsNoise(lookupTableNoise, FIRST_COLUMN, COLUMNS_COUNT);
+        for (int i = 0; i < COLUMNS_COUNT; i++) {
+            assertEquals(exactNoises[OFFSET + i], lookupTableNoises[OFFSET + i], LOOKUP_TABLE_TOLERANCE);
+            assertEquals(lookupTableNoise.noiseAt((FIRST_COLUMN + i) * Block.SIZE),
+                    lookupTableNoises[OFFSET + i], LOOKUP_TABLE_TOLERANCE);
+        }
+    }
+
+    private static TerrainNoise createTerrainNoise(TerrainNoise.SineMode sineMode) {
+        return new TerrainNoise(SEED, Block.SIZE, GRADIENT, sineMode);
+    }
+
+    private static float[] fillColumnsNoise(TerrainNoise terrainNoise, int firstColumn, int count) {
+        float[] noises = new float[OFFSET + count];
+        terrainNoise.fillColumnsNoise(firstColumn, noises, OFFSET, count);
+        return noises;
+    }
+
+}
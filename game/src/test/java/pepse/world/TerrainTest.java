@@ -0,0 +1,137 @@
+package pepse.world;
+
+import danogl.util.Vector2;
+import org.junit.jupiter.api.Test;
+import pepse.util.ColorPalette;
+import pepse.world.chunks.ChunkData;
+import pepse.world.chunks.DetachedChunkObjectRegistry;
+import pepse.world.tiles.ChunkTextureCache;
+import pepse.world.tiles.ChunkTiles;
+import pepse.world.tiles.TileMap;
+import pepse.world.tiles.TileType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class TerrainTest {
+
+    private static final int SEED = 1234;
+    private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1280, 480);
+    private static final int ROWS_COUNT = (int) Math.ceil(WINDOW_DIMENSIONS.y() * 2 / Block.SIZE);
+    private static final int CHUNKS_COUNT = 4;
+    private static final int DEPTH_BAND_ROWS = 8;
+
+    private TileMap tileMap;
+    private int bakesCount;
+
+    @Test
+    void lazyCommitMaterializesTheSurfaceRow() {
+        Terrain terrain = createTerrain(Terrain.DepthMode.LAZY);
+        commitChunks(terrain);
+        assertSurfaceIsGround(terrain);
+    }
+
+    @Test
+    void fullCommitMaterializesTheColumnsBelowTheWindow() {
+        Terrain terrain = createTerrain(Terrain.DepthMode.FULL);
+        commitChunks(terrain);
+        assertSurfaceIsGround(terrain);
+        int windowBottomRow = TileMap.rowOf(WINDOW_DIMENSIONS.y()) - 1;
+        for (int chunkIndex = -CHUNKS_COUNT; chunkIndex < CHUNKS_COUNT; chunkIndex++) {
+            ChunkTiles chunkTiles = tileMap.chunkTiles(chunkIndex);
+            for (int column = 0; column < chunkTiles.columnsCount(); column++) {
+                for (int row = surfaceRowOf(terrain, chunkTiles, column); row <= windowBottomRow; row++) {
+                    assertEquals(TileType.GROUND, chunkTiles.tileAt(column, row));
+                }
+            }
+        }
+    }
+
+    @Test
+    void depthChangesKeepTheSurfaceLayers() {
+        Terrain terrain = createTerrain(Terrain.DepthMode.LAZY);
+        commitChunks(terrain);
+        terrain.updateDepth(WINDOW_DIMENSIONS.y() * 2);
+        assertSurfaceIsGround(terrain);
+        terrain.updateDepth(0);
+        assertSurfaceIsGround(terrain);
+    }
+
+    @Test
+    void smallCameraMovesDontRebake() {
+        Terrain terrain = createTerrain(Terrain.DepthMode.LAZY);
+        commitChunks(terrain);
+        terrain.updateDepth(WINDOW_DIMENSIONS.y());
+        int committedBakesCount = bakesCount;
+        // a jump of 4 rows up and a fall of 5 rows down stay in the materialized band
+        for (int rows = -4; rows <= 5; rows++) terrain.updateDepth(WINDOW_DIMENSIONS.y() + rows * Block.SIZE);
+        assertEquals(committedBakesCount, bakesCount);
+        assertSurfaceIsGround(terrain);
+    }
+
+    @Test
+    void fallRebakesOncePerBand() {
+        Terrain terrain = createTerrain(Terrain.DepthMode.LAZY);
+        commitChunks(terrain);
+        int committedBakesCount = bakesCount;
+        int bandsCount = 2;
+        for (int rows = 1; rows <= bandsCount * DEPTH_BAND_ROWS; rows++) {
+            terrain.updateDepth(WINDOW_DIMENSIONS.y() + rows * Block.SIZE);
+        }
+        int chunksCount = 2 * CHUNKS_COUNT;
+        assertTrue(bakesCount - committedBakesCount <= bandsCount * chunksCount,
+                (bakesCount - committedBakesCount) + " bakes");
+    }
+
+    @Test
+    void depthBelowTheFullColumnsDoesntRebake() {
+        Terrain terrain = createTerrain(Terrain.DepthMode.LAZY);
+        commitChunks(terrain);
+        terrain.updateDepth(WINDOW_DIMENSIONS.y() * 4);
+        int fullDepthBakesCount = bakesCount;
+        terrain.updateDepth(WINDOW_DIMENSIONS.y() * 8);
+        assertEquals(fullDepthBakesCount, bakesCount);
+    }
+
+    private Terrain createTerrain(Terrain.DepthMode depthMode) {
+        tileMap = new TileMap(new DetachedChunkObjectRegistry(), 0, ROWS_COUNT,
+                new ChunkTextureCache(this::bake, Long.MAX_VALUE),
+                new ColorPalette(SEED));
+        return new Terrain(tileMap, WINDOW_DIMENSIONS, SEED, TerrainNoise.SineMode.EXACT, depthMode);
+    }
+
+    private void bake(Runnable bakeTask) {
+        bakesCount++;
+        bakeTask.run();
+    }
+
+    private static void commitChunks(Terrain terrain) {
+        for (int chunkIndex = -CHUNKS_COUNT; chunkIndex < CHUNKS_COUNT; chunkIndex++) {
+            ChunkData chunkData = new ChunkData(chunkIndex);
+            terrain.generateChunkData(chunkData);
+            terrain.commitChunk(chunkData);
+        }
+    }
+
+    private void assertSurfaceIsGround(Terrain terrain) {
+        for (int chunkIndex = -CHUNKS_COUNT; chunkIndex < CHUNKS_COUNT; chunkIndex++) {
+            ChunkTiles chunkTiles = tileMap.chunkTiles(chunkIndex);
+            for (int column = 0; column < chunkTiles.columnsCount(); column++) {
+                int surfaceRow = surfaceRowOf(terrain, chunkTiles, column);
+                assertEquals(TileType.AIR, chunkTiles.tileAt(column, surfaceRow - 1),
+                        "above the surface of column " + column + " of chunk " + chunkIndex);
+                for (int row = surfaceRow; row < surfaceRow + 3; row++) {
+                    assertEquals(TileType.GROUND, chunkTiles.tileAt(column, row),
+                            "row " + row + " of column " + column + " of chunk " + chunkIndex);
+                }
+            }
+        }
+    }
+
+    private static int surfaceRowOf(Terrain terrain, ChunkTiles chunkTiles, int column) {
+        int worldColumn = chunkTiles.chunkIndex() * chunkTiles.columnsCount() + column;
+        return TileMap.rowOf(terrain.groundHeightAtColumn(worldColumn));
+    }
+
+}
@@ -0,0 +1,31 @@
+package pepse.world.chunks;
+
+import danogl.GameObject;
+import pepse.world.StaticCollisionGrid;
+import pepse.world.trees.LeafPool;
+
+
+/**
+ * This class is a ChunkObjectRegistry for the tests - the objects are counted by its census but not added
+ * to a game objects collection, so the world can be generated without a running game.
+ */
+public class DetachedChunkObjectRegistry extends ChunkObjectRegistry {
+
+    /**
+     * This is the Ctor of the class
+     */
+    public DetachedChunkObjectRegistry() {
+        super(null, new LeafPool(), new StaticCollisionGrid());
+    }
+
+    @Override
+    public void add(GameObject gameObject, int layer, float anchorX) {
+        entityCensus().add(gameObject, layer, WorldChunkManager.chunkIndexAt(anchorX));
+    }
+
+    @Override
+    public void addAll(GameObject[] gameObjects, int count, int layer, float anchorX) {
+        for (int i = 0; i < count; i++) add(gameObjects[i], layer, anchorX);
+    }
+
+}
@@ -0,0 +1,99 @@
+package pepse.world.tiles;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+
+class ChunkTextureCacheTest {
+
+    private static final int COLUMNS_COUNT = 4;
+    private static final int ROWS_COUNT = 4;
+    private static final long TEXTURE_BYTES = COLUMNS_COUNT * ROWS_COUNT * 4;
+    private static final int MAX_TEXTURES_COUNT = 3;
+    private static final Color GROUND_COLOR = new Color(120, 72, 0);
+
+    private ChunkTiles[] chunksTiles;
+
+    @BeforeEach
+    void createChunksTiles() {
+        chunksTiles = new ChunkTiles[MAX_TEXTURES_COUNT + 1];
+        for (int chunkIndex = 0; chunkIndex < chunksTiles.length; chunkIndex++) {
+            chunksTiles[chunkIndex] = new ChunkTiles(chunkIndex, COLUMNS_COUNT, ROWS_COUNT);
+            chunksTiles[chunkIndex].setTile(0, ROWS_COUNT - 1, TileType.GROUND, 0);
+        }
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedTexture() {
+        ChunkTextureCache chunkTextureCache = createChunkTextureCache(MAX_TEXTURES_COUNT * TEXTURE_BYTES);
+        for (int chunkIndex = 0; chunkIndex < MAX_TEXTURES_COUNT; chunkIndex++) {
+            chunkTextureCache.bake(chunksTiles[chunkIndex]);
+        }
+        // chunk 0 is used, so chunk 1 is the least recently used one
+        assertNotNull(chunkTextureCache.textureOf(chunksTiles[0]));
+        chunkTextureCache.bake(chunksTiles[3]);
+        assertEquals(MAX_TEXTURES_COUNT, chunkTextureCache.texturesCount());
+        assertEquals(MAX_TEXTURES_COUNT * TEXTURE_BYTES, chunkTextureCache.texturesBytes());
+        assertEquals(1, chunkTextureCache.evictedTexturesCount());
+        assertNotNull(chunkTextureCache.textureOf(chunksTiles[0]));
+        assertNotNull(chunkTextureCache.textureOf(chunksTiles[2]));
+        // the evicted chunk is baked again when it is drawn, and evicts chunk 3 (used the longest ago)
+        assertNull(chunkTextureCache.textureOf(chunksTiles[1]));
+        assertEquals(2, chunkTextureCache.evictedTexturesCount());
+        assertNotNull(chunkTextureCache.textureOf(chunksTiles[1]));
+        assertNotNull(chunkTextureCache.textureOf(chunksTiles[0]));
+        assertNotNull(chunkTextureCache.textureOf(chunksTiles[2]));
+        assertNull(chunkTextureCache.textureOf(chunksTiles[3]));
+    }
+
+    @Test
+    void justBakedTextureIsKeptOverTheCap() {
+        ChunkTextureCache chunkTextureCache = createChunkTextureCache(TEXTURE_BYTES / 2);
+        chunkTextureCache.bake(chunksTiles[0]);
+        assertEquals(1, chunkTextureCache.texturesCount());
+        assertEquals(0, chunkTextureCache.evictedTexturesCount());
+        chunkTextureCache.bake(chunksTiles[1]);
+        assertEquals(1, chunkTextureCache.texturesCount());
+        assertEquals(1, chunkTextureCache.evictedTexturesCount());
+        assertNotNull(chunkTextureCache.textureOf(chunksTiles[1]));
+    }
+
+    @Test
+    void removedTextureIsNotCountedAsEvicted() {
+        ChunkTextureCache chunkTextureCache = createChunkTextureCache(MAX_TEXTURES_COUNT * TEXTURE_BYTES);
+        chunkTextureCache.bake(chunksTiles[0]);
+        chunkTextureCache.bake(chunksTiles[1]);
+        chunkTextureCache.remove(chunksTiles[0]);
+        chunkTextureCache.remove(chunksTiles[0]);
+        assertEquals(1, chunkTextureCache.texturesCount());
+        assertEquals(TEXTURE_BYTES, chunkTextureCache.texturesBytes());
+        assertEquals(0, chunkTextureCache.evictedTexturesCount());
+    }
+
+    @Test
+    void bakesAPixelPerTile() {
+        ChunkTextureCache chunkTextureCache = createChunkTextureCache(MAX_TEXTURES_COUNT * TEXTURE_BYTES);
+        chunkTextureCache.bake(chunksTiles[0]);
+        BufferedImage texture = chunkTextureCache.textureOf(chunksTiles[0]);
+        assertEquals(COLUMNS_COUNT, texture.getWidth());
+        assertEquals(ROWS_COUNT, texture.getHeight());
+        assertEquals(GROUND_COLOR.getRGB(), texture.getRGB(0, ROWS_COUNT - 1));
+        assertEquals(0, texture.getRGB(0, 0));
+    }
+
+    private static ChunkTextureCache createChunkTextureCache(long maxTexturesBytes) {
+        ChunkTextureCache chunkTextureCache = new ChunkTextureCache(Runnable::run, maxTexturesBytes);
+        Color[][] palette = new Color[TileType.values().length][];
+        palette[TileType.GROUND.ordinal()] = new Color[]{GROUND_COLOR};
+        chunkTextureCache.setPalette(palette);
+        return chunkTextureCache;
+    }
+
+}
@@ -0,0 +1,99 @@
+package pepse.world.trees;
+
+import org.junit.jupiter.api.Test;
+import pepse.world.Block;
+import pepse.world.chunks.WorldChunkManager;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class TreePlacementTest {
+
+    private static final int SEED = 1234;
+    private static final int MIN_DISTANCE_IN_BLOCKS = 7;
+    private static final float CANDIDATE_PROBABILITY = 1 / 30f;
+    private static final float DENSE_CANDIDATE_PROBABILITY = 0.5f;
+    private static final int EXCLUDED_X_COORD = 640;
+    private static final int FIRST_CHUNK = -40;
+    private static final int LAST_CHUNK = 40;
+    private static final int CHUNK_WIDTH = WorldChunkManager.CHUNK_WIDTH_IN_BLOCKS * Block.SIZE;
+
+    @Test
+    void treesKeepTheMinDistance() {
+        for (float candidateProbability : new float[]{CANDIDATE_PROBABILITY, DENSE_CANDIDATE_PROBABILITY}) {
+            TreePlacement treePlacement = createTreePlacement(SEED, candidateProbability,
+                    TreePlacement.DEFAULT_MAX_CACHED_CHUNKS);
+            int[] treesXCoords = treePlacement.treesInRange(FIRST_CHUNK * CHUNK_WIDTH,
+                    (LAST_CHUNK + 1) * CHUNK_WIDTH - 1);
+            assertTrue(treesXCoords.length > 1);
+            for (int i = 1; i < treesXCoords.length; i++) {
+                int distanceInBlocks = (treesXCoords[i] - treesXCoords[i - 1]) / Block.SIZE;
+                assertTrue(distanceInBlocks >= MIN_DISTANCE_IN_BLOCKS,
+                        "trees at " + treesXCoords[i - 1] + " and " + treesXCoords[i]);
+            }
+        }
+    }
+
+    @Test
+    void placementDependsOnlyOnTheSeed() {
+        TreePlacement treePlacement = createTreePlacement(SEED, CANDIDATE_PROBABILITY,
+                TreePlacement.DEFAULT_MAX_CACHED_CHUNKS);
+        TreePlacement evictingTreePlacement = createTreePlacement(SEED, CANDIDATE_PROBABILITY, 2);
+        long[] bitsets = new long[LAST_CHUNK - FIRST_CHUNK + 1];
+        for (int chunkIndex = FIRST_CHUNK; chunkIndex <= LAST_CHUNK; chunkIndex++) {
+            bitsets[chunkIndex - FIRST_CHUNK] = treePlacement.chunkBitset(chunkIndex);
+        }
+        // the other placement computes the chunks in the opposite order, and evicts and computes them again
+        for (int round = 0; round < 2; round++) {
+            for (int chunkIndex = LAST_CHUNK; chunkIndex >= FIRST_CHUNK; chunkIndex--) {
+                assertEquals(bitsets[chunkIndex - FIRST_CHUNK], evictingTreePlacement.chunkBitset(chunkIndex),
+                        "chunk " + chunkIndex);
+            }
+            assertEquals(2, evictingTreePlacement.cachedChunksCount());
+        }
+        TreePlacement otherSeedTreePlacement = createTreePlacement(SEED + 1, CANDIDATE_PROBABILITY,
+                TreePlacement.DEFAULT_MAX_CACHED_CHUNKS);
+        boolean isAnyChunkDifferent = false;
+        for (int chunkIndex = FIRST_CHUNK; chunkIndex <= LAST_CHUNK; chunkIndex++) {
+            isAnyChunkDifferent |= bitsets[chunkIndex - FIRST_CHUNK] !=
+                    otherSeedTreePlacement.chunkBitset(chunkIndex);
+        }
+        assertTrue(isAnyChunkDifferent);
+    }
+
+    @Test
+    void treesInRangeAgreesWithIsTreeAt() {
+        TreePlacement treePlacement = createTreePlacement(SEED, DENSE_CANDIDATE_PROBABILITY,
+                TreePlacement.DEFAULT_MAX_CACHED_CHUNKS);
+        // the range bounds are not aligned to blocks nor to chunks
+        int minX = FIRST_CHUNK * CHUNK_WIDTH + 3 * Block.SIZE + 1;
+        int maxX = LAST_CHUNK * CHUNK_WIDTH - 5 * Block.SIZE - 1;
+        int[] treesXCoords = treePlacement.treesInRange(minX, maxX);
+        int treesCount = 0;
+        for (int x = Math.floorDiv(minX, Block.SIZE) * Block.SIZE; x <= maxX; x += Block.SIZE) {
+            if (treePlacement.isTreeAt(x)) {
+                assertEquals(x, treesXCoords[treesCount++]);
+            }
+        }
+        assertEquals(treesXCoords.length, treesCount);
+        assertArrayEquals(treesXCoords, treePlacement.treesInRange(minX, maxX));
+    }
+
+    @Test
+    void noTreeGrowsInTheExcludedColumn() {
+        for (int seed = 0; seed < 100; seed++) {
+            TreePlacement treePlacement = createTreePlacement(seed, 1, 1);
+            assertFalse(treePlacement.isTreeAt(EXCLUDED_X_COORD));
+        }
+    }
+
+    private static TreePlacement createTreePlacement(int seed, float candidateProbability,
+                                                     int maxCachedChunks) {
+        return new TreePlacement(seed, MIN_DISTANCE_IN_BLOCKS, candidateProbability, EXCLUDED_X_COORD,
+                maxCachedChunks);
+    }
+
+}
@@ -0,0 +1,191 @@
+package pepse;
+
+import danogl.gui.ImageReader;
+import danogl.gui.SoundReader;
+import danogl.gui.WindowController;
+import danogl.util.Vector2;
+import pepse.util.FrameProfiler;
+import pepse.util.LatencyHistogram;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+
+/**
+ * This class runs the game without a window, for automated performance measurements.
+ * It builds the same world as the game (PepseGameManager.initializeGame, with a stand-in window that
+ * answers yes to the intro dialog and a scripted keyboard), and then steps the update of the game at a
+ * fixed time step as fast as possible until the input script ends. Nothing is rendered.
+ * At the end it reports the frames per second of the update, and the mean time and the percentiles of every
+ * phase of a frame.
+ * Usage: HeadlessDriver [script] [window width] [window height], for example
+ * HeadlessDriver "right:30,fly:5,left:30" 1280 720
+ */
+public class HeadlessDriver {
+
+    // Constants
+    private static final float FIXED_DELTA_TIME = 1 / 60f;
+    private static final String DEFAULT_SCRIPT = "right:30,right+jump:5,fly:5,left:30,idle:5";
+    private static final Vector2 DEFAULT_WINDOW_DIMENSIONS = new Vector2(1280, 720);
+    private static final double NANOS_IN_SECOND = 1e9;
+    private static final double NANOS_IN_MILLI = 1e6;
+
+    // Data members
+    private final PepseGameManager gameManager;
+    private final InputScript inputScript;
+
+
+    /**
+     * This is the Ctor of the class, builds the world of the game.
+     *
+     * @param inputScript      - the scripted keyboard.
+     * @param windowDimensions - the dimensions of the stand-in window.
+     */
+    public HeadlessDriver(InputScript inputScript, Vector2 windowDimensions) {
+        this.inputScript = inputScript;
+        this.gameManager = new PepseGameManager();
+        WindowController windowController = createWindowController(windowDimensions);
+        gameManager.initializeGame(new ImageReader(windowController), new SoundReader(windowController),
+                inputScript.asUserInputListener(), windowController);
+    }
+
+    /**
+     * This is the main method of the driver
+     *
+     * @param args - Strings array that represent the CLI arguments: [script] [window width] [window height]
+     */
+    public static void main(String[] args) {
+        InputScript inputScript = new InputScript(args.length > 0 ? args[0] : DEFAULT_SCRIPT);
+        Vector2 windowDimensions = args.length > 2 ?
+                new Vector2(Float.parseFloat(args[1]), Float.parseFloat(args[2])) : DEFAULT_WINDOW_DIMENSIONS;
+        HeadlessDriver headlessDriver = new HeadlessDriver(inputScript, windowDimensions);
+        long runNanos = headlessDriver.run();
+        headlessDriver.report(runNanos);
+        headlessDriver.gameManager().close();
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method steps the update of the game at the fixed time step until the input script ends. The
+     * whole run is measured as a single window of the frame profiler.
+     *
+     * @return long - the wall time of the run, in nanoseconds.
+     */
+    public long run() {
+        FrameProfiler frameProfiler = gameManager.frameProfiler();
+        frameProfiler.reset();
+        frameProfiler.setWindowNanos(Long.MAX_VALUE);
+        frameProfiler.setEnabled(true);
+        long runStart = System.nanoTime();
+        while (!inputScript.isDone()) step();
+        return System.nanoTime() - runStart;
+    }
+
+    /**
+     * This method steps a single frame - updates the game by the fixed time step and moves the input script
+     * forward.
+     */
+    public void step() {
+        gameManager.update(FIXED_DELTA_TIME);
+        inputScript.advance(FIXED_DELTA_TIME);
+    }
+
+    /**
+     * @return PepseGameManager - the game the driver runs.
+     */
+    public PepseGameManager gameManager() {
+        return gameManager;
+    }
+
+    /**
+     * This method prints the frames per second of the run, and the mean time and the percentiles of every
+     * phase of a frame.
+     *
+     * @param runNanos - the wall time of the run, in nanoseconds.
+     */
+    public void report(long runNanos) {
+        FrameProfiler frameProfiler = gameManager.frameProfiler();
+        int framesCount = frameProfiler.framesCount();
+        System.out.printf("frames: %d (%.1f simulated seconds) in %.3f seconds, %.1f frames per second%n",
+                framesCount, inputScript.totalTime(), runNanos / NANOS_IN_SECOND,
+                framesCount / (runNanos / NANOS_IN_SECOND));
+        FrameProfiler.Window window = frameProfiler.drainWindow();
+        System.out.printf("frame update: %.4f ms mean, %s%n", frameProfiler.meanFrameMillis(),
+                formatPercentiles(window.frame()));
+        for (FrameProfiler.Phase phase : FrameProfiler.Phase.values()) {
+            double meanMillis = frameProfiler.meanPhaseMillis(phase);
+            System.out.printf("  %-10s %.4f ms mean (%.1f%%), %s%n", phase, meanMillis,
+                    100 * meanMillis / Math.max(frameProfiler.meanFrameMillis(), Double.MIN_VALUE),
+                    formatPercentiles(window.phase(phase)));
+        }
+    }
+
+    /**
+     * This method answers a call on a stand-in proxy that has no specific answer - the Object methods by
+     * the identity of the proxy, and every other method with the default value of its return type.
+     *
+     * @param proxy  - the proxy the method was called on.
+     * @param method - the called method.
+     * @param args   - the arguments of the call.
+     * @return Object - the default answer.
+     */
+    static Object defaultValueOf(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "headless " + method.getDeclaringClass().getSimpleName();
+            default:
+                break;
+        }
+        Class<?> returnType = method.getReturnType();
+        if (returnType == boolean.class) return false;
+        if (returnType == float.class) return 0f;
+        if (returnType == double.class) return 0d;
+        if (returnType == long.class) return 0L;
+        if (returnType == int.class) return 0;
+        if (returnType == short.class) return (short) 0;
+        if (returnType == byte.class) return (byte) 0;
+        if (returnType == char.class) return (char) 0;
+        return null;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Private methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * @param snapshot - spans in nanoseconds.
+     * @return String - the percentiles of the spans, in milliseconds.
+     */
+    private static String formatPercentiles(LatencyHistogram.Snapshot snapshot) {
+        return String.format("p50 %.4f, p99 %.4f, p999 %.4f, max %.4f ms",
+                snapshot.valueAtPercentile(50) / NANOS_IN_MILLI,
+                snapshot.valueAtPercentile(99) / NANOS_IN_MILLI,
+                snapshot.valueAtPercentile(99.9) / NANOS_IN_MILLI,
+                snapshot.max() / NANOS_IN_MILLI);
+    }
+
+    /**
+     * This method creates the stand-in window - it has the given dimensions, answers yes to every dialog and
+     * ignores every other call.
+     *
+     * @param windowDimensions - the dimensions of the window.
+     * @return WindowController - the stand-in window.
+     */
+    private static WindowController createWindowController(Vector2 windowDimensions) {
+        return (WindowController) Proxy.newProxyInstance(WindowController.class.getClassLoader(),
+                new Class<?>[]{WindowController.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getWindowDimensions":
+                            return windowDimensions;
+                        case "openYesNoDialog":
+                            return true;
+                        default:
+                            return defaultValueOf(proxy, method, args);
+                    }
+                });
+    }
+
+}
@@ -0,0 +1,155 @@
+package pepse;
+
+import danogl.gui.UserInputListener;
+
+import java.awt.event.KeyEvent;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * This class is a scripted keyboard for running the game without a window - a sequence of steps, each one
+ * holds a set of keys pressed for a duration of simulated time.
+ * A script is written as comma separated steps of keys:seconds, where the keys are joined by '+', for
+ * example "right:10,right+space:2,fly:3,idle:1". The keys are left, right, space (or jump), shift, fly
+ * (shift and space) and idle (no key).
+ */
+public class InputScript {
+
+    // Constants
+    private static final String STEPS_SEPARATOR = ",";
+    private static final String DURATION_SEPARATOR = ":";
+    private static final String KEYS_SEPARATOR = "\\+";
+
+    // Data members
+    private final List<Step> steps;
+    private int currentStep;
+    private float currentStepTime;
+    private float totalTime;
+
+
+    /**
+     * This is the Ctor of the class
+     *
+     * @param script - the script, comma separated steps of keys:seconds.
+     * @throws IllegalArgumentException - if the script has an unknown key or a bad duration.
+     */
+    public InputScript(String script) {
+        this.steps = new ArrayList<>();
+        for (String step : script.split(STEPS_SEPARATOR)) {
+            String[] keysAndDuration = step.trim().split(DURATION_SEPARATOR);
+            if (keysAndDuration.length != 2) {
+                throw new IllegalArgumentException("Bad script step (expected keys:seconds): " + step);
+            }
+            float duration = Float.parseFloat(keysAndDuration[1]);
+            steps.add(new Step(parseKeys(keysAndDuration[0]), duration));
+            totalTime += duration;
+        }
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method moves the script forward by the given simulated time.
+     *
+     * @param deltaTime - the time passed since the last frame.
+     */
+    public void advance(float deltaTime) {
+        currentStepTime += deltaTime;
+        while (!isDone() && currentStepTime >= steps.get(currentStep).duration) {
+            currentStepTime -= steps.get(currentStep).duration;
+            currentStep++;
+        }
+    }
+
+    /**
+     * @return boolean - true if all the steps of the script were played, false else.
+     */
+    public boolean isDone() {
+        return currentStep >= steps.size();
+    }
+
+    /**
+     * @param keyCode - the code of the key (KeyEvent.VK_*).
+     * @return boolean - true if the given key is pressed in the current step, false else.
+     */
+    public boolean isKeyPressed(int keyCode) {
+        if (isDone()) return false;
+        for (int key : steps.get(currentStep).keys) {
+            if (key == keyCode) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return float - the total simulated time of the script, in seconds.
+     */
+    public float totalTime() {
+        return totalTime;
+    }
+
+    /**
+     * This method creates an input listener that answers by the script (every other query of the listener
+     * answers nothing is pressed).
+     *
+     * @return UserInputListener - the input listener of the script.
+     */
+    public UserInputListener asUserInputListener() {
+        return (UserInputListener) Proxy.newProxyInstance(UserInputListener.class.getClassLoader(),
+                new Class<?>[]{UserInputListener.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("isKeyPressed")) return isKeyPressed((Integer) args[0]);
+                    return HeadlessDriver.defaultValueOf(proxy, method, args);
+                });
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Private methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * @param keys - the keys of a step, joined by '+'.
+     * @return int array - the codes of the keys.
+     */
+    private static int[] parseKeys(String keys) {
+        List<Integer> keyCodes = new ArrayList<>();
+        for (String key : keys.trim().toLowerCase().split(KEYS_SEPARATOR)) {
+            switch (key) {
+                case "left":
+                    keyCodes.add(KeyEvent.VK_LEFT);
+                    break;
+                case "right":
+                    keyCodes.add(KeyEvent.VK_RIGHT);
+                    break;
+                case "space":
+                case "jump":
+                    keyCodes.add(KeyEvent.VK_SPACE);
+                    break;
+                case "shift":
+                    keyCodes.add(KeyEvent.VK_SHIFT);
+                    break;
+                case "fly":
+                    keyCodes.add(KeyEvent.VK_SHIFT);
+                    keyCodes.add(KeyEvent.VK_SPACE);
+                    break;
+                case "idle":
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown key in script: " + key);
+            }
+        }
+        return keyCodes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * This class represent a single step of the script - the pressed keys and for how long.
+     */
+    private static class Step {
+        private final int[] keys;
+        private final float duration;
+
+        private Step(int[] keys, float duration) {
+            this.keys = keys;
+            this.duration = duration;
+        }
+    }
+
+}
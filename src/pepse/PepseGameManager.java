@@ -11,19 +11,37 @@ import danogl.gui.UserInputListener;
 import danogl.gui.WindowController;
 import danogl.gui.rendering.Camera;
 import danogl.util.Vector2;
+import pepse.util.ColorPalette;
+import pepse.util.FrameProfileCsvWriter;
+import pepse.util.FrameProfiler;
 import pepse.world.daynight.Night;
 import pepse.world.daynight.Sun;
 import pepse.world.daynight.SunHalo;
 import pepse.world.Avatar;
+import pepse.world.AvatarGroundSolver;
 import pepse.world.Block;
+import pepse.world.CensusOverlay;
+import pepse.world.ProfilerOverlay;
 import pepse.world.Sky;
+import pepse.world.StaticCollisionGrid;
 import pepse.world.Terrain;
+import pepse.world.TextOverlay;
+import pepse.world.chunks.ChunkGenerator;
+import pepse.world.chunks.ChunkObjectRegistry;
+import pepse.world.chunks.ChunkPrefetcher;
+import pepse.world.chunks.EntityCensus;
+import pepse.world.chunks.WorldChunkManager;
+import pepse.world.tiles.ChunkTextureCache;
+import pepse.world.tiles.TileMap;
+import pepse.world.trees.LeafPool;
+import pepse.world.trees.LeafSystem;
 import pepse.world.trees.Tree;
-import pepse.world.trees.TreeGenerator;
 
 import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
 
-import static pepse.util.BlockUtils.roundDownCoordToBlockSize;
 import static pepse.util.RandomUtils.randomIntNumberInRange;
 
 
@@ -34,8 +52,9 @@ public class PepseGameManager extends GameManager {
 
     // Constants
     private static final int SEED_VALUE = randomIntNumberInRange(400, 2200);
-    private static final int TRUNK_LAYER = Layer.STATIC_OBJECTS + 10;
-    private static final int TERRAIN_LAYER = Layer.STATIC_OBJECTS;
+    // the chunks tiles (ground and trunks) are drawn above the leaves, like the trunks were
+    private static final int TILES_LAYER = Layer.STATIC_OBJECTS + 10;
+    private static final float TILE_MAP_DEPTH_FACTOR = 2;
     private static final int AVATAR_LAYER = Layer.DEFAULT;
     private static final int SKY_LAYER = Layer.BACKGROUND;
     private static final int NIGHT_LAYER = Layer.FOREGROUND;
@@ -45,15 +64,43 @@ public class PepseGameManager extends GameManager {
     private static final float SUN_CYCLE_LENGTH = 40;
     private static final Color SUN_HALO_COLOR = new Color(255, 255, 0, 20);
     private static final float HALF_FACTOR = 1 / 2f;
+    private static final int PROFILER_OVERLAY_LAYER = Layer.UI;
+    private static final Vector2 PROFILER_OVERLAY_TOP_LEFT_CORNER = new Vector2(10, 10);
+    private static final Color PROFILER_OVERLAY_COLOR = Color.BLACK;
+    private static final int PROFILER_KEY = KeyEvent.VK_F3;
+    private static final int CENSUS_OVERLAY_LAYER = Layer.UI;
+    private static final float CENSUS_OVERLAY_TOP = 10;
+    private static final Color CENSUS_OVERLAY_COLOR = Color.BLACK;
+    private static final int CENSUS_KEY = KeyEvent.VK_F4;
+    private static final int CENSUS_REFRESH_FRAMES = 30;
+    // when set, the frame profiler is enabled from the start and its windows are written to this CSV path
+    private static final String PROFILER_CSV_PROPERTY = "pepse.profiler.csv";
     private static final String INTRO_GAME_MSG = "Welcome to Paradise! Do you want to dive in?";
 
     // Data members
     private Avatar avatar;
+    private AvatarGroundSolver avatarGroundSolver;
     private Terrain terrain;
     private Tree tree;
+    private LeafPool leafPool;
+    private TileMap tileMap;
+    private ColorPalette colorPalette;
+    private StaticCollisionGrid staticCollisionGrid;
+    private LeafSystem leafSystem;
+    private ChunkObjectRegistry chunkObjectRegistry;
+    private WorldChunkManager worldChunkManager;
+    private ForkJoinPool chunkGenerationPool;
     private Vector2 windowDimensions;
-    private int minXCoordGame;
-    private int maxXCoordGame;
+    private final FrameProfiler frameProfiler = new FrameProfiler();
+    private ProfilerOverlay profilerOverlay;
+    // read by the game thread while the shutdown hook may close it
+    private volatile FrameProfileCsvWriter frameProfileCsvWriter;
+    private UserInputListener inputListener;
+    private boolean wasProfilerKeyPressed;
+    private EntityCensus entityCensus;
+    private CensusOverlay censusOverlay;
+    private boolean wasCensusKeyPressed;
+    private int framesTillCensusRefresh;
 
 
     /**
@@ -62,7 +109,10 @@ public class PepseGameManager extends GameManager {
      * @param args - Strings array that represent the CLI arguments
      */
     public static void main(String[] args) {
-        new PepseGameManager().run();
+        PepseGameManager pepseGameManager = new PepseGameManager();
+        // the window may exit the process without returning from run, so the game is closed on the exit
+        Runtime.getRuntime().addShutdownHook(new Thread(pepseGameManager::close));
+        pepseGameManager.run();
     }
 
     // ~~~~~~~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
@@ -88,8 +138,21 @@ public class PepseGameManager extends GameManager {
         boolean startGame = windowController.openYesNoDialog(INTRO_GAME_MSG);
         if (!startGame) windowController.closeWindow(); // exit the game at first according the user wish
         windowDimensions = windowController.getWindowDimensions();
-        minXCoordGame = roundDownCoordToBlockSize((int) -windowDimensions.x());
-        maxXCoordGame = roundDownCoordToBlockSize((int) (2 * windowDimensions.x()));
+        this.inputListener = inputListener;
+        leafPool = new LeafPool();
+        colorPalette = new ColorPalette(SEED_VALUE);
+        staticCollisionGrid = new StaticCollisionGrid();
+        entityCensus = new EntityCensus();
+        chunkObjectRegistry = new ChunkObjectRegistry(gameObjects(), leafPool, staticCollisionGrid,
+                entityCensus);
+        createChunkGenerationPool();
+        int tileMapRowsCount = (int) Math.ceil(windowDimensions.y() * TILE_MAP_DEPTH_FACTOR / Block.SIZE);
+        // the cache fits the images of all the loaded chunks, so only the unloading drops them
+        long maxTexturesBytes = ChunkTextureCache.maxTexturesBytesFor(
+                WorldChunkManager.maxLoadedChunksCount(viewDistance()),
+                WorldChunkManager.CHUNK_WIDTH_IN_BLOCKS, tileMapRowsCount);
+        tileMap = new TileMap(chunkObjectRegistry, TILES_LAYER, tileMapRowsCount,
+                new ChunkTextureCache(chunkGenerationPool, maxTexturesBytes), colorPalette);
         // Build the games objects
         createSky();
         createNight();
@@ -97,6 +160,9 @@ public class PepseGameManager extends GameManager {
         createTerrain();
         createTreesOnTerrain();
         createAvatar(inputListener, imageReader);
+        createWorldChunkManager();
+        createFrameProfilerOutputs();
+        createCensusOverlay();
     }
 
 
@@ -105,13 +171,50 @@ public class PepseGameManager extends GameManager {
      *
      * @param deltaTime - The deltaTime for super() method.
      *                  responsible for keeps the world of the game in update mode (infinite world) and
-     *                  updates the avatar location.
+     *                  updates the leaves life cycle. After the objects moved the avatar is resolved
+     *                  against the static blocks around him and against the ground. Every phase is
+     *                  measured by the frame profiler (when it is enabled), which is toggled with its
+     *                  overlay by the profiler key. The census overlay is toggled by the census key.
      */
     @Override
     public void update(float deltaTime) {
-        updateWorld();
-        updateAvatarLocation();
+        updateOverlaysToggles();
+        long frameStart = frameProfiler.startFrame();
+        Vector2 avatarPreviousTopLeftCorner = avatar.getTopLeftCorner();
+        updateWorld(deltaTime);
+        long lap = frameProfiler.lap(FrameProfiler.Phase.WORLD, frameStart);
+        updateLeaves(deltaTime);
+        lap = frameProfiler.lap(FrameProfiler.Phase.LEAVES, lap);
         super.update(deltaTime);
+        lap = frameProfiler.lap(FrameProfiler.Phase.OBJECTS, lap);
+        staticCollisionGrid.resolve(avatar);
+        avatarGroundSolver.resolve(avatar, avatarPreviousTopLeftCorner);
+        lap = frameProfiler.lap(FrameProfiler.Phase.COLLISIONS, lap);
+        frameProfiler.endFrame(frameStart, lap);
+    }
+
+    /**
+     * @return FrameProfiler - the profiler of the phases of the frame update.
+     */
+    public FrameProfiler frameProfiler() {
+        return frameProfiler;
+    }
+
+    /**
+     * This method releases what the game holds out of the game objects - shuts down the chunks generation
+     * pool and closes the frame profile CSV file. It is called when the game exits, on the shutdown hook
+     * thread, so it is synchronized with the reset of the game that replaces the pool and the writer.
+     */
+    public synchronized void close() {
+        if (chunkGenerationPool != null) chunkGenerationPool.shutdown();
+        closeFrameProfileCsvWriter();
+    }
+
+    /**
+     * @return EntityCensus - the census of the live objects of the game.
+     */
+    public EntityCensus entityCensus() {
+        return entityCensus;
     }
 
     // ~~~~~~~~~~~~~~~~~~~~~~ Private methods ~~~~~~~~~~~~~~~~~~~~~~~~~~~
@@ -121,14 +224,17 @@ public class PepseGameManager extends GameManager {
      * This method is responsible for create the Sky in the game
      */
     private void createSky() {
-        Sky.create(gameObjects(), windowDimensions, SKY_LAYER);
+        GameObject sky = Sky.create(gameObjects(), windowDimensions, SKY_LAYER, colorPalette);
+        entityCensus.add(sky, SKY_LAYER, EntityCensus.NO_CHUNK);
     }
 
     /**
      * This method is responsible for create the Night illusion in the game
      */
     private void createNight() {
-        Night.create(gameObjects(), NIGHT_LAYER, windowDimensions, NIGHT_CYCLE_LENGTH);
+        GameObject night =
+                Night.create(gameObjects(), NIGHT_LAYER, windowDimensions, NIGHT_CYCLE_LENGTH, colorPalette);
+        entityCensus.add(night, NIGHT_LAYER, EntityCensus.NO_CHUNK, 0, Night.ESTIMATED_TRANSITIONS_COUNT);
     }
 
     /**
@@ -136,27 +242,55 @@ public class PepseGameManager extends GameManager {
      */
     private void createSunAndSunHalo() {
         GameObject sun = Sun.create(gameObjects(), SUN_LAYER, windowDimensions, SUN_CYCLE_LENGTH);
-        SunHalo.create(gameObjects(), SUN_HALO_LAYER, sun, SUN_HALO_COLOR);
+        GameObject sunHalo = SunHalo.create(gameObjects(), SUN_HALO_LAYER, sun, SUN_HALO_COLOR);
+        entityCensus.add(sun, SUN_LAYER, EntityCensus.NO_CHUNK, 0, Sun.ESTIMATED_TRANSITIONS_COUNT);
+        entityCensus.add(sunHalo, SUN_HALO_LAYER, EntityCensus.NO_CHUNK, SunHalo.ESTIMATED_COMPONENTS_COUNT,
+                0);
     }
 
     /**
-     * This method is responsible for create the Terrain of the game
+     * This method is responsible for create the Terrain of the game, its ground is stored in the tile map.
      */
     private void createTerrain() {
-        terrain = new Terrain(gameObjects(), TERRAIN_LAYER, windowDimensions, SEED_VALUE);
-        terrain.createInRange(minXCoordGame, maxXCoordGame);
+        terrain = new Terrain(tileMap, windowDimensions, SEED_VALUE);
     }
 
     /**
      * This method is responsible for create the Trees of the game
      */
     private void createTreesOnTerrain() {
-        float dist_from_window_borders = (int) (windowDimensions.x() / 10);
-        tree = new Tree(windowDimensions, gameObjects(), terrain::groundHeightAt, TRUNK_LAYER, SEED_VALUE);
-        int minX = (int) (minXCoordGame + dist_from_window_borders);
-        int maxX = (int) (maxXCoordGame - dist_from_window_borders - Tree.TREE_TOP_DIMENSION);
-        tree.createInRange(minX, maxX);
-        gameObjects().layers().shouldLayersCollide(Layer.STATIC_OBJECTS + 5, TERRAIN_LAYER, true);
+        // the leaves land by the ground height, not by collisions
+        leafSystem = new LeafSystem(terrain::groundHeightAt, SEED_VALUE);
+        tree = new Tree(windowDimensions, chunkObjectRegistry, leafPool, leafSystem, tileMap, colorPalette,
+                SEED_VALUE);
+    }
+
+    /**
+     * This method creates the pool the data phase of the chunks and the baking of their images run on. The
+     * pool leaves one core to the game thread, the pool of the previous game (before a reset) is shut down.
+     */
+    private synchronized void createChunkGenerationPool() {
+        if (chunkGenerationPool != null) chunkGenerationPool.shutdown();
+        chunkGenerationPool = new ForkJoinPool(Math.max(Runtime.getRuntime().availableProcessors() - 1, 1));
+    }
+
+    /**
+     * @return int - the view distance of the chunks streamer, covers the window width plus one chunk on each
+     * side.
+     */
+    private int viewDistance() {
+        return (int) Math.ceil(windowDimensions.x() / WorldChunkManager.CHUNK_WIDTH) + 1;
+    }
+
+    /**
+     * This method is responsible for creates the chunks streamer of the world and loading the chunks
+     * around the avatar.
+     */
+    private void createWorldChunkManager() {
+        ChunkGenerator chunkGenerator = new ChunkGenerator(terrain, tree, tileMap, chunkGenerationPool);
+        worldChunkManager = new WorldChunkManager(chunkObjectRegistry, chunkGenerator, new ChunkPrefetcher(),
+                terrain, viewDistance());
+        worldChunkManager.update(avatar.getCenter().x(), 0, 0);
     }
 
     /**
@@ -176,87 +310,100 @@ public class PepseGameManager extends GameManager {
         Vector2 avatarTopLeftCorner =
                 new Vector2(xCoordAvatarTopLeftCorner, yCoordAvatarTopLeftCorner).add(Vector2.ONES);
         avatar = Avatar.create(gameObjects(), AVATAR_LAYER, avatarTopLeftCorner, inputListener, imageReader);
-        gameObjects().layers().shouldLayersCollide(AVATAR_LAYER, TERRAIN_LAYER, true);
-        gameObjects().layers().shouldLayersCollide(AVATAR_LAYER, TRUNK_LAYER, true);
+        entityCensus.add(avatar, AVATAR_LAYER, EntityCensus.NO_CHUNK);
+        // the avatar is resolved against the ground heights by the AvatarGroundSolver and against the
+        // trunks by the static collision grid, not by layers collisions
+        avatarGroundSolver = new AvatarGroundSolver(terrain);
         setCamera(new Camera(avatar, windowDimensions.mult(HALF_FACTOR).subtract(avatar.getCenter()),
                 windowDimensions, windowDimensions));
     }
 
     /**
-     * This method is responsible for updating the avatar location in the game.
+     * This method is responsible for creates the outputs of the frame profiler - the overlay of its
+     * percentiles (hidden until the profiler key is pressed), and the CSV file when its path is set by the
+     * PROFILER_CSV_PROPERTY system property. The writer of the previous game (before a reset) is closed, and
+     * the writer of the new game appends to its file.
      */
-    private void updateAvatarLocation() {
-        float xCoordAvatarTopLeftCorner = avatar.getTopLeftCorner().x();
-        if (avatar.getTopLeftCorner().y() > terrain.groundHeightAt(xCoordAvatarTopLeftCorner) + HALF_FACTOR * Block.SIZE) {
-            avatar.setTopLeftCorner(new Vector2(xCoordAvatarTopLeftCorner, windowDimensions.y() -
-                    terrain.groundHeightAt(xCoordAvatarTopLeftCorner - avatar.getDimensions().y())));
+    private synchronized void createFrameProfilerOutputs() {
+        if (profilerOverlay != null) frameProfiler.removeWindowListener(profilerOverlay);
+        profilerOverlay = new ProfilerOverlay(new TextOverlay(gameObjects(), PROFILER_OVERLAY_LAYER,
+                PROFILER_OVERLAY_TOP_LEFT_CORNER, PROFILER_OVERLAY_COLOR));
+        frameProfiler.addWindowListener(profilerOverlay);
+        boolean isReset = frameProfileCsvWriter != null;
+        closeFrameProfileCsvWriter();
+        String csvPath = System.getProperty(PROFILER_CSV_PROPERTY);
+        if (csvPath != null) {
+            frameProfileCsvWriter = new FrameProfileCsvWriter(Paths.get(csvPath),
+                    FrameProfileCsvWriter.DEFAULT_MAX_FILE_BYTES, isReset);
+            frameProfiler.addWindowListener(frameProfileCsvWriter);
         }
+        frameProfiler.setEnabled(frameProfileCsvWriter != null);
     }
 
     /**
-     * This method is responsible for updating our game in terms of "infinite world".
-     * Calc the dis between the avatar to the sides of the screen and checks if it > 0, if so we expend the
-     * ground, update the bounds of the game and remove the object that belong to the old other hand of the
-     * screen.
+     * This method is responsible for closing the frame profile CSV writer, if there is one, and removing it
+     * from the frame profiler. Called with the lock of the game held.
      */
-    private void updateWorld() {
-        int windowWidth = (int) windowDimensions.x();
-        float centerMinCoordDelta = avatar.getCenter().x() - minXCoordGame;
-        float centerMaxCoordDelta = maxXCoordGame - avatar.getCenter().x();
-        if (centerMinCoordDelta < windowWidth) {
-            expandGround(minXCoordGame - windowWidth, minXCoordGame);
-            updateWorldBoundaries(-windowWidth);
-        }
-        if (centerMaxCoordDelta < windowWidth) {
-            expandGround(maxXCoordGame, maxXCoordGame + windowWidth);
-            updateWorldBoundaries(windowWidth);
-        }
-        removeObjectsOutOfBounds();
+    private void closeFrameProfileCsvWriter() {
+        if (frameProfileCsvWriter == null) return;
+        frameProfiler.removeWindowListener(frameProfileCsvWriter);
+        frameProfileCsvWriter.close();
+        frameProfileCsvWriter = null;
     }
 
     /**
-     * This method is responsible for "expend" our Terrain in the world of our game in some given range.
-     *
-     * @param minX - the start coord
-     * @param maxX - the end coord of the game
+     * This method is responsible for creates the overlay of the census of the world (hidden until the
+     * census key is pressed), on the right half of the window.
      */
-    private void expandGround(int minX, int maxX) {
-        terrain.createInRange(minX, maxX);
-        tree.createInRange(minX, maxX);
+    private void createCensusOverlay() {
+        censusOverlay = new CensusOverlay(new TextOverlay(gameObjects(), CENSUS_OVERLAY_LAYER,
+                new Vector2(windowDimensions.x() * HALF_FACTOR, CENSUS_OVERLAY_TOP), CENSUS_OVERLAY_COLOR),
+                entityCensus, tileMap, leafSystem);
     }
 
     /**
-     * This method is responsible for update the world bounds.
+     * This method is responsible for toggling the overlays when their keys are pressed, and refreshing the
+     * shown census every few frames. The profiler measures while its overlay is shown or its CSV file is
+     * written.
+     */
+    private void updateOverlaysToggles() {
+        boolean isProfilerKeyPressed = inputListener.isKeyPressed(PROFILER_KEY);
+        if (isProfilerKeyPressed && !wasProfilerKeyPressed) {
+            profilerOverlay.setVisible(!profilerOverlay.isVisible());
+            frameProfiler.setEnabled(profilerOverlay.isVisible() || frameProfileCsvWriter != null);
+        }
+        wasProfilerKeyPressed = isProfilerKeyPressed;
+        boolean isCensusKeyPressed = inputListener.isKeyPressed(CENSUS_KEY);
+        if (isCensusKeyPressed && !wasCensusKeyPressed) censusOverlay.setVisible(!censusOverlay.isVisible());
+        wasCensusKeyPressed = isCensusKeyPressed;
+        if (censusOverlay.isVisible() && --framesTillCensusRefresh <= 0) {
+            censusOverlay.refresh();
+            framesTillCensusRefresh = CENSUS_REFRESH_FRAMES;
+        }
+    }
+
+    /**
+     * This method is responsible for updating the leaves life cycle, the leaves are animated by their
+     * distance from the camera.
      *
-     * @param windowWidth - The factor to add to the bounds.
+     * @param deltaTime - the time passed since the last update.
      */
-    private void updateWorldBoundaries(int windowWidth) {
-        minXCoordGame += windowWidth;
-        maxXCoordGame += windowWidth;
+    private void updateLeaves(float deltaTime) {
+        float cameraMinX = camera().getTopLeftCorner().x();
+        leafSystem.update(deltaTime, cameraMinX, cameraMinX + camera().getDimensions().x());
     }
 
     /**
-     * This method is responsible for removing the "out of bounds" objects of the game.
-     * using the bounds of the game and the method removeGameObject.
+     * This method is responsible for updating our game in terms of "infinite world".
+     * Loads the chunks around the avatar and unloads the chunks that got too far from him, prefetching
+     * the chunks he is heading to by his velocity, and materializes the ground layers down to the bottom of
+     * the camera.
+     *
+     * @param deltaTime - the time passed since the last update.
      */
-    private void removeObjectsOutOfBounds() {
-        for (GameObject gameObject : gameObjects()) {
-            float xCoordLeftGameObject = gameObject.getTopLeftCorner().x();
-            if (xCoordLeftGameObject < minXCoordGame || xCoordLeftGameObject > maxXCoordGame) {
-                String gameObjectTag = gameObject.getTag();
-                switch (gameObjectTag) {
-                    case Terrain.GROUND_BLOCK_TAG:
-                        gameObjects().removeGameObject(gameObject, TERRAIN_LAYER);
-                        break;
-                    case TreeGenerator.TRUNK_TAG:
-                        gameObjects().removeGameObject(gameObject, TRUNK_LAYER);
-                        break;
-                    case TreeGenerator.LEAF_TAG:
-                        gameObjects().removeGameObject(gameObject, Layer.STATIC_OBJECTS + 5);
-                        break;
-                }
-            }
-        }
+    private void updateWorld(float deltaTime) {
+        worldChunkManager.update(avatar.getCenter().x(), avatar.getVelocity().x(), deltaTime);
+        terrain.updateDepth(camera().getTopLeftCorner().y() + camera().getDimensions().y());
     }
 
-}
\ No newline at end of file
+}
@@ -1,7 +1,6 @@
 package pepse.world;
 
 import danogl.*;
-import danogl.collisions.Collision;
 import danogl.collisions.GameObjectCollection;
 import danogl.gui.*;
 import danogl.gui.rendering.*;
@@ -81,29 +80,11 @@ public class Avatar extends GameObject {
                                 ImageReader imageReader) {
         Avatar avatar = new Avatar(topLeftCorner, inputListener, imageReader);
         avatar.setTag(AVATAR_TAG);
-        AvatarEnergyMeter.create();
         gameObjects.addGameObject(avatar, layer);
         return avatar;
     }
 
 
-    /**
-     * This method represent the collision of the avatar in the game, specific with the Ground.
-     *
-     * @param other     - other object to be collide with.
-     * @param collision - collision object for collision logic.
-     *                  If the avatar is collide with the ground we will set his speed to zero.
-     */
-    @Override
-    public void onCollisionEnter(GameObject other, Collision collision) {
-        super.onCollisionEnter(other, collision);
-        String otherTag = other.getTag();
-        if (otherTag.equals(Terrain.GROUND_BLOCK_TAG)) {
-            setVelocity(Vector2.ZERO);
-        }
-    }
-
-
     /**
      * This method is responsible for update the avatar movement in the game.
      *
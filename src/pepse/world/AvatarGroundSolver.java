@@ -0,0 +1,109 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+
+/**
+ * This class resolves the Avatar against the terrain height profile directly, instead of colliding him with
+ * the ground blocks. Everything below the ground surface is solid, so the avatar can't sink into the ground,
+ * and his horizontal movement is swept column by column, so a large frame time can't carry him through a
+ * ground wall.
+ */
+public class AvatarGroundSolver {
+
+    // Constants
+    // the highest ground step the avatar walks up without jumping
+    private static final float MAX_STEP_HEIGHT = Block.SIZE / 2f;
+    private static final float EDGE_EPSILON = 0.01f;
+
+    // Data members
+    private final Terrain terrain;
+
+
+    /**
+     * This is the Ctor of the class
+     *
+     * @param terrain - the terrain of the game.
+     */
+    public AvatarGroundSolver(Terrain terrain) {
+        this.terrain = terrain;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method resolves the avatar after he moved in the current frame - stops him at ground walls he
+     * moved through, and places him on the ground if he reached it (zeroing his vertical velocity).
+     *
+     * @param avatar                - the avatar, after the movement of the frame.
+     * @param previousTopLeftCorner - the top left corner of the avatar before the movement of the frame.
+     */
+    public void resolve(GameObject avatar, Vector2 previousTopLeftCorner) {
+        Vector2 topLeftCorner = avatar.getTopLeftCorner();
+        Vector2 dimensions = avatar.getDimensions();
+        float x = sweepHorizontally(previousTopLeftCorner.x(), topLeftCorner.x(),
+                previousTopLeftCorner.y() + dimensions.y(), dimensions.x());
+        float y = topLeftCorner.y();
+        float groundHeight = highestGroundUnder(x, dimensions.x());
+        if (y + dimensions.y() >= groundHeight) {
+            y = groundHeight - dimensions.y();
+            if (avatar.getVelocity().y() > 0) avatar.transform().setVelocityY(0);
+        }
+        if (x != topLeftCorner.x() || y != topLeftCorner.y()) avatar.setTopLeftCorner(new Vector2(x, y));
+    }
+
+    /**
+     * This method sweeps the horizontal movement of the avatar over the ground columns his leading edge
+     * passed, and stops him before the first column that is too high to step on.
+     *
+     * @param fromX  - the left edge of the avatar before the movement.
+     * @param toX    - the left edge of the avatar after the movement.
+     * @param bottom - the bottom of the avatar before the movement.
+     * @param width  - the width of the avatar.
+     * @return float - the left edge of the avatar after the sweep.
+     */
+    private float sweepHorizontally(float fromX, float toX, float bottom, float width) {
+        if (toX > fromX) {
+            int lastColumn = columnOf(toX + width - EDGE_EPSILON);
+            for (int column = columnOf(fromX + width - EDGE_EPSILON) + 1; column <= lastColumn; column++) {
+                float groundHeight = terrain.groundHeightAtColumn(column);
+                if (groundHeight < bottom - MAX_STEP_HEIGHT) return column * Block.SIZE - width;
+                bottom = Math.min(bottom, groundHeight);
+            }
+        } else if (toX < fromX) {
+            int lastColumn = columnOf(toX);
+            for (int column = columnOf(fromX) - 1; column >= lastColumn; column--) {
+                float groundHeight = terrain.groundHeightAtColumn(column);
+                if (groundHeight < bottom - MAX_STEP_HEIGHT) return (column + 1) * Block.SIZE;
+                bottom = Math.min(bottom, groundHeight);
+            }
+        }
+        return toX;
+    }
+
+    /**
+     * This method finds the highest ground (the smallest height) under the given horizontal range.
+     *
+     * @param x     - the left edge of the range.
+     * @param width - the width of the range.
+     * @return float - the height of the highest ground column under the range.
+     */
+    private float highestGroundUnder(float x, float width) {
+        float groundHeight = Float.MAX_VALUE;
+        int lastColumn = columnOf(x + width - EDGE_EPSILON);
+        for (int column = columnOf(x); column <= lastColumn; column++) {
+            groundHeight = Math.min(groundHeight, terrain.groundHeightAtColumn(column));
+        }
+        return groundHeight;
+    }
+
+    /**
+     * @param x - horizontal coord.
+     * @return int - the index of the block column that contains the given coord.
+     */
+    private static int columnOf(float x) {
+        return Math.floorDiv((int) Math.floor(x), Block.SIZE);
+    }
+
+}
@@ -0,0 +1,133 @@
+package pepse.world;
+
+import pepse.world.chunks.EntityCensus;
+import pepse.world.tiles.TileMap;
+import pepse.world.tiles.TileType;
+import pepse.world.trees.LeafDetailLevel;
+import pepse.world.trees.LeafSystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+
+/**
+ * This class shows the census of the world on a text overlay - the live objects by tag (with their
+ * estimated bytes, and the static estimates of their components and transitions), by layer and by chunk,
+ * the tiles of the loaded chunks (the ground and the trunks are tiles, not objects) and the leaves by their
+ * level of detail.
+ * All the numbers are read from counts that are kept incrementally, so a refresh doesn't scan the world.
+ */
+public class CensusOverlay {
+
+    // Constants
+    private static final String TITLE_FORMAT = "census: %d objects, %.1f KB estimated";
+    private static final String TAG_LINE_FORMAT =
+            "  %-10s %6d objects %8.1f KB %3d est. components %3d est. transitions";
+    private static final String ESTIMATES_LINE =
+            "  (components and transitions are static estimates declared where the objects are created)";
+    private static final String TILES_LINE_FORMAT = "tiles: %d ground, %d trunk, %.1f KB in %d chunks";
+    private static final String LAYERS_LINE_TITLE = "layers:";
+    private static final String CHUNKS_LINE_TITLE = "chunks:";
+    private static final String LEAVES_LINE_TITLE = "leaves:";
+    private static final String COUNT_ENTRY_FORMAT = " %s=%d";
+    private static final String NO_LAYER_NAME = "none";
+    private static final String NO_CHUNK_NAME = "fixed";
+    private static final String LEAVES_TOTAL_NAME = "total";
+    private static final double BYTES_IN_KB = 1024;
+
+    // Data members
+    private final TextOverlay textOverlay;
+    private final EntityCensus entityCensus;
+    private final TileMap tileMap;
+    private final LeafSystem leafSystem;
+
+
+    /**
+     * This is the Ctor of the class
+     *
+     * @param textOverlay  - the overlay the census is shown on.
+     * @param entityCensus - the census of the live objects.
+     * @param tileMap      - the tile map of the world.
+     * @param leafSystem   - the life cycle of the leaves.
+     */
+    public CensusOverlay(TextOverlay textOverlay, EntityCensus entityCensus, TileMap tileMap,
+                         LeafSystem leafSystem) {
+        this.textOverlay = textOverlay;
+        this.entityCensus = entityCensus;
+        this.tileMap = tileMap;
+        this.leafSystem = leafSystem;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method shows the current census, if the overlay is shown.
+     */
+    public void refresh() {
+        if (!textOverlay.isVisible()) return;
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, TITLE_FORMAT, entityCensus.objectsCount(),
+                entityCensus.estimatedBytes() / BYTES_IN_KB));
+        for (String tag : entityCensus.tags()) {
+            lines.add(String.format(Locale.ROOT, TAG_LINE_FORMAT, tag, entityCensus.tagCount(tag),
+                    entityCensus.tagEstimatedBytes(tag) / BYTES_IN_KB, entityCensus.tagComponentsCount(tag),
+                    entityCensus.tagTransitionsCount(tag)));
+        }
+        lines.add(ESTIMATES_LINE);
+        StringBuilder layersLine = new StringBuilder(LAYERS_LINE_TITLE);
+        for (int layer : entityCensus.layers()) {
+            appendCountEntry(layersLine,
+                    layer == EntityCensus.NO_LAYER ? NO_LAYER_NAME : String.valueOf(layer),
+                    entityCensus.layerCount(layer));
+        }
+        lines.add(layersLine.toString());
+        StringBuilder chunksLine = new StringBuilder(CHUNKS_LINE_TITLE);
+        for (int chunkIndex : entityCensus.chunks()) {
+            appendCountEntry(chunksLine,
+                    chunkIndex == EntityCensus.NO_CHUNK ? NO_CHUNK_NAME : String.valueOf(chunkIndex),
+                    entityCensus.chunkCount(chunkIndex));
+        }
+        lines.add(chunksLine.toString());
+        lines.add(String.format(Locale.ROOT, TILES_LINE_FORMAT, tileMap.tilesCount(TileType.GROUND),
+                tileMap.tilesCount(TileType.TRUNK), tileMap.bytesCount() / BYTES_IN_KB,
+                tileMap.chunksCount()));
+        StringBuilder leavesLine = new StringBuilder(LEAVES_LINE_TITLE);
+        appendCountEntry(leavesLine, LEAVES_TOTAL_NAME, leafSystem.leavesCount());
+        for (LeafDetailLevel detailLevel : LeafDetailLevel.values()) {
+            appendCountEntry(leavesLine, detailLevel.name().toLowerCase(Locale.ROOT),
+                    leafSystem.leavesCount(detailLevel));
+        }
+        lines.add(leavesLine.toString());
+        textOverlay.setLines(lines);
+    }
+
+    /**
+     * This method shows or hides the overlay, a shown overlay is refreshed at once.
+     *
+     * @param isVisible - true for showing the overlay, false for hiding it.
+     */
+    public void setVisible(boolean isVisible) {
+        textOverlay.setVisible(isVisible);
+        refresh();
+    }
+
+    /**
+     * @return boolean - true if the overlay is shown, false else.
+     */
+    public boolean isVisible() {
+        return textOverlay.isVisible();
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Private methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * @param line  - the line to append to.
+     * @param name  - the name of the entry.
+     * @param count - the count of the entry.
+     */
+    private static void appendCountEntry(StringBuilder line, String name, int count) {
+        line.append(String.format(Locale.ROOT, COUNT_ENTRY_FORMAT, name, count));
+    }
+
+}
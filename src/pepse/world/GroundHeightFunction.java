@@ -0,0 +1,16 @@
+package pepse.world;
+
+/**
+ * This interface represent a function that gives the height of the ground in a given x coordinate,
+ * without boxing the coordinate and the height (unlike Function&lt;Float, Float&gt;).
+ */
+@FunctionalInterface
+public interface GroundHeightFunction {
+
+    /**
+     * @param x - horizontal coord.
+     * @return float - the height of the ground in the given coord.
+     */
+    float groundHeightAt(float x);
+
+}
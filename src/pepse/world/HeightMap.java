@@ -0,0 +1,87 @@
+package pepse.world;
+
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * This class is a cache of the ground heights of the loaded chunks.
+ * The heights of each chunk are held in a primitive float array indexed by the block column inside the
+ * chunk, filled once when the chunk is generated and dropped when the chunk is unloaded.
+ */
+public class HeightMap {
+
+    // Data members
+    private final int chunkWidthInBlocks;
+    private final Map<Integer, float[]> chunksHeights;
+    private int lastChunkIndex;
+    private float[] lastChunkHeights;
+
+
+    /**
+     * This is the Ctor of the class
+     *
+     * @param chunkWidthInBlocks - the number of block columns in a single chunk.
+     */
+    public HeightMap(int chunkWidthInBlocks) {
+        this.chunkWidthInBlocks = chunkWidthInBlocks;
+        this.chunksHeights = new HashMap<>();
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method stores the heights of the given chunk.
+     *
+     * @param chunkIndex - the index of the chunk.
+     * @param heights    - the ground heights of the chunk columns, from left to right.
+     */
+    public void putChunk(int chunkIndex, float[] heights) {
+        chunksHeights.put(chunkIndex, heights);
+        if (chunkIndex == lastChunkIndex) lastChunkHeights = heights;
+    }
+
+    /**
+     * This method drops the heights of the given chunk.
+     *
+     * @param chunkIndex - the index of the chunk.
+     */
+    public void removeChunk(int chunkIndex) {
+        chunksHeights.remove(chunkIndex);
+        if (chunkIndex == lastChunkIndex) lastChunkHeights = null;
+    }
+
+    /**
+     * @param chunkIndex - the index of the chunk.
+     * @return boolean - true if the heights of the given chunk are cached, false otherwise.
+     */
+    public boolean containsChunk(int chunkIndex) {
+        return chunksHeights.containsKey(chunkIndex);
+    }
+
+    /**
+     * This method looks up the cached ground height of the given block column.
+     *
+     * @param column - the index of the block column (x coordinate divided by Block.SIZE).
+     * @return float - the cached height, or Float.NaN if the chunk of the column isn't cached.
+     */
+    public float heightAtColumn(int column) {
+        int chunkIndex = Math.floorDiv(column, chunkWidthInBlocks);
+        if (chunkIndex != lastChunkIndex || lastChunkHeights == null) {
+            // most of the queries hit the same chunk as the previous one
+            float[] heights = chunksHeights.get(chunkIndex);
+            if (heights == null) return Float.NaN;
+            lastChunkIndex = chunkIndex;
+            lastChunkHeights = heights;
+        }
+        return lastChunkHeights[column - chunkIndex * chunkWidthInBlocks];
+    }
+
+    /**
+     * @return int - the number of the cached chunks.
+     */
+    public int chunksCount() {
+        return chunksHeights.size();
+    }
+
+}
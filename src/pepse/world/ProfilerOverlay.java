@@ -0,0 +1,89 @@
+package pepse.world;
+
+import pepse.util.FrameProfiler;
+import pepse.util.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+
+/**
+ * This class shows the percentiles of the last window of the frame profiler on a text overlay - a line per
+ * phase of the update, a line of the whole update and a line of the time between the updates.
+ * The text is replaced once per window, and only while the overlay is shown.
+ */
+public class ProfilerOverlay implements FrameProfiler.WindowListener {
+
+    // Constants
+    private static final String TITLE_FORMAT = "frame profile (%d updates in %.1f s), ms:";
+    private static final String LINE_FORMAT = "%-16s p50 %7.3f  p99 %7.3f  p999 %7.3f  max %7.3f";
+    private static final String UPDATE_LINE_NAME = "update";
+    private static final String BETWEEN_UPDATES_LINE_NAME = "between updates";
+    private static final double NANOS_IN_MILLI = 1e6;
+    private static final double NANOS_IN_SECOND = 1e9;
+
+    // Data members
+    private final TextOverlay textOverlay;
+
+
+    /**
+     * This is the Ctor of the class
+     *
+     * @param textOverlay - the overlay the percentiles are shown on.
+     */
+    public ProfilerOverlay(TextOverlay textOverlay) {
+        this.textOverlay = textOverlay;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method shows the percentiles of the given window, if the overlay is shown.
+     *
+     * @param window - the percentiles of the window.
+     */
+    @Override
+    public void onWindow(FrameProfiler.Window window) {
+        if (!textOverlay.isVisible()) return;
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, TITLE_FORMAT, window.frame().count(),
+                window.durationNanos() / NANOS_IN_SECOND));
+        for (FrameProfiler.Phase phase : FrameProfiler.Phase.values()) {
+            lines.add(formatLine(phase.name().toLowerCase(Locale.ROOT), window.phase(phase)));
+        }
+        lines.add(formatLine(UPDATE_LINE_NAME, window.frame()));
+        lines.add(formatLine(BETWEEN_UPDATES_LINE_NAME, window.betweenUpdates()));
+        textOverlay.setLines(lines);
+    }
+
+    /**
+     * @param isVisible - true for showing the overlay, false for hiding it.
+     */
+    public void setVisible(boolean isVisible) {
+        textOverlay.setVisible(isVisible);
+    }
+
+    /**
+     * @return boolean - true if the overlay is shown, false else.
+     */
+    public boolean isVisible() {
+        return textOverlay.isVisible();
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Private methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * @param name     - the name of the line.
+     * @param snapshot - the spans of the line, in nanoseconds.
+     * @return String - the percentiles of the spans, in milliseconds.
+     */
+    private static String formatLine(String name, LatencyHistogram.Snapshot snapshot) {
+        return String.format(Locale.ROOT, LINE_FORMAT, name,
+                snapshot.valueAtPercentile(50) / NANOS_IN_MILLI,
+                snapshot.valueAtPercentile(99) / NANOS_IN_MILLI,
+                snapshot.valueAtPercentile(99.9) / NANOS_IN_MILLI,
+                snapshot.max() / NANOS_IN_MILLI);
+    }
+
+}
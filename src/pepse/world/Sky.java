@@ -3,9 +3,8 @@ package pepse.world;
 import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
 import danogl.components.CoordinateSpace;
-import danogl.gui.rendering.RectangleRenderable;
 import danogl.util.Vector2;
-import pepse.util.ColorSupplier;
+import pepse.util.ColorPalette;
 
 import java.awt.*;
 
@@ -25,13 +24,14 @@ public class Sky {
      * @param gameObjects      - game objects collection.
      * @param windowDimensions - vector2, the wanted coordinates.
      * @param skyLayer         - the layer of the sky.
+     * @param colorPalette     - the palette the shared renderable of the sky is taken from.
      * @return gameobject, the sky it self.
      */
     public static GameObject create(GameObjectCollection gameObjects,
-                                    Vector2 windowDimensions, int skyLayer) {
+                                    Vector2 windowDimensions, int skyLayer, ColorPalette colorPalette) {
         GameObject sky = new GameObject(
                 Vector2.ZERO, windowDimensions,
-                new RectangleRenderable(ColorSupplier.approximateColor(BASIC_SKY_COLOR)));
+                colorPalette.renderableOf(BASIC_SKY_COLOR));
         sky.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
         gameObjects.addGameObject(sky, skyLayer);
         sky.setTag(SKY_TAG);
@@ -0,0 +1,186 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * This class is a uniform grid broadphase for the collisions of dynamic objects with the static blocks of
+ * the world. The static blocks are inserted to the grid cells they overlap when they are created and removed
+ * when their chunk is unloaded, and a dynamic object is tested only against the blocks of the cells it
+ * overlaps - so the cost of a collision test depends on the density of the blocks around the object, not
+ * on the size of the world.
+ */
+public class StaticCollisionGrid {
+
+    // Constants
+    private static final int CELL_SIZE_IN_BLOCKS = 2;
+    public static final int CELL_SIZE = CELL_SIZE_IN_BLOCKS * Block.SIZE;
+    private static final float EDGE_EPSILON = 0.01f;
+
+    // Data members
+    private final Map<Long, List<GameObject>> cells;
+    private final List<GameObject> candidates;
+    private int objectsCount;
+    private int lastCandidatesCount;
+
+
+    /**
+     * This is the Ctor of the class
+     */
+    public StaticCollisionGrid() {
+        this.cells = new HashMap<>();
+        this.candidates = new ArrayList<>();
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method inserts the given static object to all the cells it overlaps.
+     *
+     * @param gameObject - the static object, must not move while it is in the grid.
+     */
+    public void insert(GameObject gameObject) {
+        Vector2 topLeftCorner = gameObject.getTopLeftCorner();
+        Vector2 bottomRightCorner = topLeftCorner.add(gameObject.getDimensions());
+        int lastCellX = cellOf(bottomRightCorner.x() - EDGE_EPSILON);
+        int lastCellY = cellOf(bottomRightCorner.y() - EDGE_EPSILON);
+        for (int cellX = cellOf(topLeftCorner.x()); cellX <= lastCellX; cellX++) {
+            for (int cellY = cellOf(topLeftCorner.y()); cellY <= lastCellY; cellY++) {
+                cells.computeIfAbsent(cellKey(cellX, cellY), k -> new ArrayList<>()).add(gameObject);
+            }
+        }
+        objectsCount++;
+    }
+
+    /**
+     * This method removes the given static object from all the cells it overlaps.
+     *
+     * @param gameObject - the static object, in the same place it was inserted in.
+     */
+    public void remove(GameObject gameObject) {
+        Vector2 topLeftCorner = gameObject.getTopLeftCorner();
+        Vector2 bottomRightCorner = topLeftCorner.add(gameObject.getDimensions());
+        int lastCellX = cellOf(bottomRightCorner.x() - EDGE_EPSILON);
+        int lastCellY = cellOf(bottomRightCorner.y() - EDGE_EPSILON);
+        for (int cellX = cellOf(topLeftCorner.x()); cellX <= lastCellX; cellX++) {
+            for (int cellY = cellOf(topLeftCorner.y()); cellY <= lastCellY; cellY++) {
+                long key = cellKey(cellX, cellY);
+                List<GameObject> cellObjects = cells.get(key);
+                if (cellObjects == null) continue;
+                cellObjects.remove(gameObject);
+                if (cellObjects.isEmpty()) cells.remove(key);
+            }
+        }
+        objectsCount--;
+    }
+
+    /**
+     * This method pushes the given dynamic object out of the static objects it overlaps, each time along the
+     * axis of the smallest penetration, and stops its velocity towards the objects it was pushed out of.
+     *
+     * @param dynamicObject - the dynamic object, after its movement of the frame.
+     */
+    public void resolve(GameObject dynamicObject) {
+        Vector2 dimensions = dynamicObject.getDimensions();
+        Vector2 topLeftCorner = dynamicObject.getTopLeftCorner();
+        float x = topLeftCorner.x();
+        float y = topLeftCorner.y();
+        collectCandidates(x, y, dimensions.x(), dimensions.y());
+        for (GameObject staticObject : candidates) {
+            Vector2 staticTopLeftCorner = staticObject.getTopLeftCorner();
+            Vector2 staticDimensions = staticObject.getDimensions();
+            float overlapX = Math.min(x + dimensions.x(), staticTopLeftCorner.x() + staticDimensions.x()) -
+                    Math.max(x, staticTopLeftCorner.x());
+            float overlapY = Math.min(y + dimensions.y(), staticTopLeftCorner.y() + staticDimensions.y()) -
+                    Math.max(y, staticTopLeftCorner.y());
+            if (overlapX <= 0 || overlapY <= 0) continue;
+            Vector2 velocity = dynamicObject.getVelocity();
+            boolean isStaticAfter;
+            if (overlapX < overlapY) {
+                isStaticAfter = x + dimensions.x() / 2 < staticTopLeftCorner.x() + staticDimensions.x() / 2;
+                x += isStaticAfter ? -overlapX : overlapX;
+                if (isStaticAfter ? velocity.x() > 0 : velocity.x() < 0) {
+                    dynamicObject.transform().setVelocityX(0);
+                }
+            } else {
+                isStaticAfter = y + dimensions.y() / 2 < staticTopLeftCorner.y() + staticDimensions.y() / 2;
+                y += isStaticAfter ? -overlapY : overlapY;
+                if (isStaticAfter ? velocity.y() > 0 : velocity.y() < 0) {
+                    dynamicObject.transform().setVelocityY(0);
+                }
+            }
+        }
+        if (x != topLeftCorner.x() || y != topLeftCorner.y()) dynamicObject.setTopLeftCorner(new Vector2(x, y));
+    }
+
+    /**
+     * @return int - the number of the static objects in the grid.
+     */
+    public int objectsCount() {
+        return objectsCount;
+    }
+
+    /**
+     * @return int - the number of the non empty cells of the grid.
+     */
+    public int cellsCount() {
+        return cells.size();
+    }
+
+    /**
+     * @return int - the number of the static objects the last resolved object was tested against.
+     */
+    public int lastCandidatesCount() {
+        return lastCandidatesCount;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Private methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method collects the static objects of the cells the given rectangle overlaps (each object once).
+     *
+     * @param x      - the left edge of the rectangle.
+     * @param y      - the top edge of the rectangle.
+     * @param width  - the width of the rectangle.
+     * @param height - the height of the rectangle.
+     */
+    private void collectCandidates(float x, float y, float width, float height) {
+        candidates.clear();
+        int lastCellX = cellOf(x + width - EDGE_EPSILON);
+        int lastCellY = cellOf(y + height - EDGE_EPSILON);
+        for (int cellX = cellOf(x); cellX <= lastCellX; cellX++) {
+            for (int cellY = cellOf(y); cellY <= lastCellY; cellY++) {
+                List<GameObject> cellObjects = cells.get(cellKey(cellX, cellY));
+                if (cellObjects == null) continue;
+                for (GameObject gameObject : cellObjects) {
+                    if (!candidates.contains(gameObject)) candidates.add(gameObject);
+                }
+            }
+        }
+        lastCandidatesCount = candidates.size();
+    }
+
+    /**
+     * @param coord - coordinate (x or y).
+     * @return int - the index of the cell that contains the given coordinate.
+     */
+    private static int cellOf(float coord) {
+        return Math.floorDiv((int) Math.floor(coord), CELL_SIZE);
+    }
+
+    /**
+     * @param cellX - the column of the cell.
+     * @param cellY - the row of the cell.
+     * @return long - a single key of the cell for the cells map.
+     */
+    private static long cellKey(int cellX, int cellY) {
+        return ((long) cellX << Integer.SIZE) | (cellY & 0xFFFFFFFFL);
+    }
+
+}
@@ -1,117 +1,282 @@
 package pepse.world;
 
-import danogl.collisions.GameObjectCollection;
-import danogl.gui.rendering.RectangleRenderable;
 import danogl.util.Vector2;
-import pepse.util.ColorSupplier;
+import pepse.world.chunks.ChunkData;
+import pepse.world.chunks.WorldChunkManager;
+import pepse.world.tiles.ChunkTiles;
+import pepse.world.tiles.TileMap;
+import pepse.world.tiles.TileType;
 
 import java.awt.*;
+import java.util.HashMap;
+import java.util.Map;
 
 import static pepse.util.BlockUtils.*;
 
 
 /**
  * This class represent the Terrain (ground) of the game.
+ * The ground is stored as GROUND tiles of the TileMap (no game object per block), the heights of the loaded
+ * chunks are cached in a HeightMap.
+ * In the LAZY depth mode only the top surface layers of the ground, and the layers down to a bit below the
+ * bottom of the camera, are materialized as tiles. Deeper layers are materialized when the camera
+ * approaches them and dematerialized when it leaves them. Nothing else goes below the surface (the avatar
+ * and the leaves are resolved against the ground heights), so the surface behaves the same in both modes.
  */
 public class Terrain {
 
     // Constants
-    public static final String GROUND_BLOCK_TAG = "ground";
+    public static final int TERRAIN_GRADIENT = 800;
     private static final Color BASE_GROUND_COLOR = new Color(212, 123, 74);
-    private static final int TERRAIN_GRADIENT = 800;
     private static final float HALF_FACTOR = 0.5f;
     private static final float FACTOR = 2;
-    private static final double NUM1 = -1.8;
-    private static final double NUM2 = -1.5;
-    private static final double NUM3 = 0.4;
-    private static final double NUM4 = 2.6;
-    private static final double NUM5 = 0.9;
-    private static final double NUM6 = 0.4;
-    private static final double NUM_ONE = 1;
+    private static final int SURFACE_LAYERS = 3;
+    private static final int DEPTH_MARGIN_ROWS = 2;
+    // the depth is materialized in bands of rows, so the chunks are rebaked once per band the camera crosses
+    private static final int DEPTH_BAND_ROWS = 8;
+    // the camera should move up this number of whole bands before the deep layers are dematerialized
+    private static final int DEMATERIALIZE_HYSTERESIS_BANDS = 1;
+    // the old bottom row of a chunk that has no ground tiles yet
+    private static final int NOTHING_MATERIALIZED = Integer.MIN_VALUE;
+
+    /**
+     * This enum class contains the ways the ground depth is materialized: FULL - every column is filled down
+     * to FACTOR times its visible depth, LAZY - down to a bit below the camera.
+     */
+    public enum DepthMode {FULL, LAZY}
 
 
     // Data members
-    private final GameObjectCollection gameObjects;
-    private final int groundLayer;
+    private final TileMap tileMap;
     private final Vector2 windowDimensions;
     private final float groundHeightAtX0;
-    private final int seed;
+    private final TerrainNoise terrainNoise;
+    private final HeightMap heightMap;
+    private final DepthMode depthMode;
+    private final Map<Integer, Integer> chunksBottomRows;
+    private int requiredBottomRow;
 
 
     /**
      * This is the Ctor of the class
      *
-     * @param gameObjects      - game objects collection.
-     * @param groundLayer      - the ground layer in the game.
+     * @param tileMap          - the tile map the ground tiles are stored in.
      * @param windowDimensions - Vector2, the window dim of the screen
      * @param seed             - the seed for the randomness in the game.
+     * @param sineMode         - the way the terrain noise evaluates the sine function.
+     * @param depthMode        - the way the ground depth is materialized.
      */
-    public Terrain(GameObjectCollection gameObjects,
-                   int groundLayer,
-                   Vector2 windowDimensions, int seed) {
-        this.gameObjects = gameObjects;
-        this.groundLayer = groundLayer;
+    public Terrain(TileMap tileMap, Vector2 windowDimensions, int seed, TerrainNoise.SineMode sineMode,
+                   DepthMode depthMode) {
+        this.tileMap = tileMap;
         this.windowDimensions = windowDimensions;
         this.groundHeightAtX0 = roundDownCoordToBlockSize((int) (HALF_FACTOR * windowDimensions.y()));
-        this.seed = seed;
+        this.terrainNoise = new TerrainNoise(seed, Block.SIZE, TERRAIN_GRADIENT, sineMode);
+        this.heightMap = new HeightMap(WorldChunkManager.CHUNK_WIDTH_IN_BLOCKS);
+        this.depthMode = depthMode;
+        this.chunksBottomRows = new HashMap<>();
+        // the camera starts at the top of the world
+        this.requiredBottomRow = bandBottomRow(TileMap.rowOf(windowDimensions.y()) + DEPTH_MARGIN_ROWS);
+        tileMap.setBaseColor(TileType.GROUND, BASE_GROUND_COLOR);
+    }
+
+    /**
+     * This is the Ctor of the class, with the exact sine evaluation of the terrain noise and the lazy
+     * ground depth.
+     *
+     * @param tileMap          - the tile map the ground tiles are stored in.
+     * @param windowDimensions - Vector2, the window dim of the screen
+     * @param seed             - the seed for the randomness in the game.
+     */
+    public Terrain(TileMap tileMap, Vector2 windowDimensions, int seed) {
+        this(tileMap, windowDimensions, seed, TerrainNoise.SineMode.EXACT, DepthMode.LAZY);
     }
 
     // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
 
     /**
-     * This method is calc the ground height in the given x coordinate
+     * This method is calc the ground height in the given x coordinate - the height of the ground block
+     * column that contains the coordinate.
      *
      * @param x - horizental coord in which we will calc the height of the ground.
      * @return float number - the height of the ground in the given coord.
      */
     public float groundHeightAt(float x) {
-        if (x == windowDimensions.x() * HALF_FACTOR) {
-            return groundHeightAtX0;
+        return groundHeightAtColumn(Math.floorDiv((int) Math.floor(x), Block.SIZE));
+    }
+
+    /**
+     * This method gives the ground height of the given block column, by an array read if the chunk of the
+     * column is loaded or by calculating it otherwise.
+     *
+     * @param column - the index of the block column (x coordinate divided by Block.SIZE).
+     * @return float number - the height of the ground in the given column.
+     */
+    public float groundHeightAtColumn(int column) {
+        float height = heightMap.heightAtColumn(column);
+        return Float.isNaN(height) ? calcGroundHeightAt(column * Block.SIZE) : height;
+    }
+
+    /**
+     * This method computes the ground data of the given chunk - the heights of its columns (data phase of
+     * the chunk generation). It doesn't touch any game state, so it can run on a worker thread.
+     *
+     * @param chunkData - the data of the chunk to fill.
+     */
+    public void generateChunkData(ChunkData chunkData) {
+        float[] heights = new float[WorldChunkManager.CHUNK_WIDTH_IN_BLOCKS];
+        fillColumnsHeights(chunkData.minX() / Block.SIZE, heights, 0, heights.length);
+        chunkData.setGround(heights);
+    }
+
+    /**
+     * This method fills the heights cache of the given chunk, creates its tiles in the tile map and sets its
+     * ground tiles (down to the currently required depth) from its data (commit phase of the chunk
+     * generation). The color variant of a ground tile is picked by its place.
+     *
+     * @param chunkData - the data of the chunk.
+     */
+    public void commitChunk(ChunkData chunkData) {
+        heightMap.putChunk(chunkData.chunkIndex(), chunkData.groundHeights());
+        tileMap.createChunk(chunkData.chunkIndex());
+        int bottomRow = depthMode == DepthMode.FULL ? Integer.MAX_VALUE : requiredBottomRow;
+        materializeChunk(chunkData.chunkIndex(), NOTHING_MATERIALIZED, bottomRow);
+        chunksBottomRows.put(chunkData.chunkIndex(), bottomRow);
+    }
+
+    /**
+     * This method materializes the ground layers of the loaded chunks down to the end of the band of rows a
+     * bit below the bottom of the camera, and dematerializes the deep layers the camera left (LAZY depth
+     * mode only). A chunk is rebaked only if its tiles were changed.
+     *
+     * @param cameraBottomY - the y coordinate of the bottom of the camera.
+     */
+    public void updateDepth(float cameraBottomY) {
+        if (depthMode == DepthMode.FULL) return;
+        requiredBottomRow = bandBottomRow(TileMap.rowOf(cameraBottomY) + DEPTH_MARGIN_ROWS);
+        for (Map.Entry<Integer, Integer> chunkBottomRow : chunksBottomRows.entrySet()) {
+            int bottomRow = chunkBottomRow.getValue();
+            if (requiredBottomRow > bottomRow ||
+                    requiredBottomRow < bottomRow - DEMATERIALIZE_HYSTERESIS_BANDS * DEPTH_BAND_ROWS) {
+                chunkBottomRow.setValue(requiredBottomRow);
+                if (materializeChunk(chunkBottomRow.getKey(), bottomRow, requiredBottomRow)) {
+                    tileMap.rebakeChunk(chunkBottomRow.getKey());
+                }
+            }
         }
-        float groundHeightAddition =
-                2 * Block.SIZE * Math.abs(perlinNoise((x / TERRAIN_GRADIENT)) + 1);
-        if (groundHeightAddition < 0) {
-            return groundHeightAtX0 + Block.SIZE;
-        } else if (groundHeightAtX0 + groundHeightAddition > windowDimensions.y()) {
-            return roundDownCoordToBlockSize((int) (windowDimensions.y() - Block.SIZE));
+    }
+
+    /**
+     * This method calc the ground heights of count consecutive block columns at once, by the batch path
+     * of the terrain noise (with EXACT sine mode the heights are the same as the ones of groundHeightAt).
+     *
+     * @param firstColumn - the index of the first block column.
+     * @param heights     - the array to fill with the heights, caller supplied.
+     * @param offset      - the index in heights of the first column.
+     * @param count       - the number of columns.
+     */
+    public void fillColumnsHeights(int firstColumn, float[] heights, int offset, int count) {
+        terrainNoise.fillColumnsNoise(firstColumn, heights, offset, count);
+        for (int i = 0; i < count; i++) {
+            heights[offset + i] = noiseToGroundHeight((firstColumn + i) * Block.SIZE, heights[offset + i]);
         }
-        return roundDownCoordToBlockSize((int) (groundHeightAtX0 + groundHeightAddition));
     }
 
     /**
-     * This method creates blocks (for the ground) in the given range.
+     * This method evicts the heights cache and the tiles of the given chunk, called when the chunk is
+     * unloaded.
      *
-     * @param minX - coord to start from.
-     * @param maxX - coord to end.
+     * @param chunkIndex - the index of the chunk.
      */
-    public void createInRange(int minX, int maxX) {
-        if (isNotBlockSizeMultiple(minX)) minX = roundDownCoordToBlockSize(minX);
-        if (isNotBlockSizeMultiple(maxX)) maxX = roundUpCoordToBlockSize(maxX);
-        float windowHeight = windowDimensions.y();
-        float curXCoord;
-        for (int i = 0; i < (maxX - minX) / Block.SIZE; i++) {
-            curXCoord = minX + i * Block.SIZE;
-            for (int j = 0; j < (windowHeight - groundHeightAt(curXCoord)) / Block.SIZE * FACTOR; j++) {
-                float curYCoord = groundHeightAt(curXCoord) + j * Block.SIZE;
-                Block block = new Block(new Vector2(curXCoord, curYCoord),
-                        new RectangleRenderable(ColorSupplier.approximateColor(BASE_GROUND_COLOR)));
-                block.setTag(GROUND_BLOCK_TAG);
-                gameObjects.addGameObject(block, groundLayer);
+    public void unloadChunk(int chunkIndex) {
+        heightMap.removeChunk(chunkIndex);
+        chunksBottomRows.remove(chunkIndex);
+        tileMap.removeChunk(chunkIndex);
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Private methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method changes the materialized ground tiles of every column of the given chunk from the old
+     * bottom row to the new one - adds the layers between them if the new one is deeper, and removes them
+     * otherwise. The top surface layers and the layers under the full depth of a column are never changed.
+     *
+     * @param chunkIndex   - the index of the chunk.
+     * @param oldBottomRow - the last materialized row of the chunk, NOTHING_MATERIALIZED if the chunk has no
+     *                     ground tiles yet (the surface layers are materialized too).
+     * @param newBottomRow - the last row to materialize.
+     * @return boolean - true if a tile of the chunk was changed, false else.
+     */
+    private boolean materializeChunk(int chunkIndex, int oldBottomRow, int newBottomRow) {
+        ChunkTiles chunkTiles = tileMap.chunkTiles(chunkIndex);
+        int firstColumn = chunkIndex * WorldChunkManager.CHUNK_WIDTH_IN_BLOCKS;
+        boolean isChanged = false;
+        for (int i = 0; i < chunkTiles.columnsCount(); i++) {
+            float groundHeight = heightMap.heightAtColumn(firstColumn + i);
+            int surfaceRow = TileMap.rowOf(groundHeight);
+            int fullBottomRow = surfaceRow + groundBlocksInColumn(groundHeight) - 1;
+            int minBottomRow = Math.min(surfaceRow + SURFACE_LAYERS - 1, fullBottomRow);
+            int oldColumnBottomRow = oldBottomRow == NOTHING_MATERIALIZED ? surfaceRow - 1 :
+                    Math.min(Math.max(oldBottomRow, minBottomRow), fullBottomRow);
+            int newColumnBottomRow = Math.min(Math.max(newBottomRow, minBottomRow), fullBottomRow);
+            isChanged |= newColumnBottomRow != oldColumnBottomRow;
+            for (int row = oldColumnBottomRow + 1; row <= newColumnBottomRow; row++) {
+                chunkTiles.setTile(i, row, TileType.GROUND, tileMap.variantAt(firstColumn + i, row));
+            }
+            for (int row = newColumnBottomRow + 1; row <= oldColumnBottomRow; row++) {
+                chunkTiles.setTile(i, row, TileType.AIR, 0);
             }
         }
+        return isChanged;
+    }
+
+    /**
+     * @param row - tile row.
+     * @return int - the last row of the band of rows that contains the given row.
+     */
+    private static int bandBottomRow(int row) {
+        return Math.floorDiv(row, DEPTH_BAND_ROWS) * DEPTH_BAND_ROWS + DEPTH_BAND_ROWS - 1;
+    }
+
+    /**
+     * This method calc the number of ground blocks in a column, from the surface down to FACTOR times the
+     * visible depth of the column.
+     *
+     * @param groundHeight - the ground height of the column.
+     * @return int - the number of blocks in the column.
+     */
+    private int groundBlocksInColumn(float groundHeight) {
+        return Math.max((int) Math.ceil((windowDimensions.y() - groundHeight) / Block.SIZE * FACTOR), 0);
+    }
+
+    /**
+     * This method is calc the ground height in the given x coordinate by the perlin noise.
+     *
+     * @param x - horizental coord in which we will calc the height of the ground.
+     * @return float number - the height of the ground in the given coord.
+     */
+    private float calcGroundHeightAt(float x) {
+        return noiseToGroundHeight(x, terrainNoise.noiseAt(x));
     }
 
     /**
-     * This method is responsible for calc the perlin noise number for the tree random create.
+     * This method turns the noise number of the given x coordinate to the ground height in it.
      *
-     * @param num - num to manipulate
-     * @return float - the noise number.
+     * @param x     - horizental coord in which we will calc the height of the ground.
+     * @param noise - the terrain noise number of the coord.
+     * @return float number - the height of the ground in the given coord.
      */
-    private float perlinNoise(float num) {
-        num += seed;
-        double numToMult = (NUM1 * Math.sin(NUM2 * num) - NUM3 *
-                Math.sin(NUM4 * Math.E * num) + NUM5 * Math.sin(NUM6 * Math.PI * num));
-        return (float) (NUM_ONE + HALF_FACTOR * numToMult);
+    private float noiseToGroundHeight(float x, float noise) {
+        if (x == windowDimensions.x() * HALF_FACTOR) {
+            return groundHeightAtX0;
+        }
+        float groundHeightAddition = 2 * Block.SIZE * Math.abs(noise + 1);
+        if (groundHeightAddition < 0) {
+            return groundHeightAtX0 + Block.SIZE;
+        } else if (groundHeightAtX0 + groundHeightAddition > windowDimensions.y()) {
+            return roundDownCoordToBlockSize((int) (windowDimensions.y() - Block.SIZE));
+        }
+        return roundDownCoordToBlockSize((int) (groundHeightAtX0 + groundHeightAddition));
     }
 
 }
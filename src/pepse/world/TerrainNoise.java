@@ -0,0 +1,175 @@
+package pepse.world;
+
+/**
+ * This class is responsible for the noise function that shapes the terrain of the game.
+ * It gives the noise of a single number (the scalar path) and of a whole range of block columns at once
+ * (the batch path). The batch path runs each sine term as a separate tight loop over primitive scratch
+ * arrays, which are kept per thread and reused between calls, and evaluates exactly the same double precision
+ * expressions as the scalar path, so in EXACT mode both paths give bit-identical results and a seed keeps
+ * generating the same world.
+ */
+public class TerrainNoise {
+
+    /**
+     * This enum contains the ways the noise can evaluate the sine function.
+     * EXACT uses Math.sin, LOOKUP_TABLE uses an interpolated table - faster, but the heights it gives
+     * may differ slightly from the EXACT ones (so worlds of the same seed may differ between the modes).
+     */
+    public enum SineMode {EXACT, LOOKUP_TABLE}
+
+    // Constants
+    private static final double NUM1 = -1.8;
+    private static final double NUM2 = -1.5;
+    private static final double NUM3 = 0.4;
+    private static final double NUM4 = 2.6;
+    private static final double NUM5 = 0.9;
+    private static final double NUM6 = 0.4;
+    private static final double NUM_ONE = 1;
+    private static final float HALF_FACTOR = 0.5f;
+    private static final int SINE_TABLE_SIZE = 1 << 12;
+    private static final double SINE_TABLE_STEPS_PER_RADIAN = SINE_TABLE_SIZE / (2 * Math.PI);
+    private static final double[] SINE_TABLE = createSineTable();
+    // the batch path runs on the chunks generation threads, so its scratch arrays are kept per thread
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    // Data members
+    private final int seed;
+    private final int columnWidth;
+    private final int gradient;
+    private final SineMode sineMode;
+
+
+    /**
+     * This is the Ctor of the class
+     *
+     * @param seed        - the seed for the randomness in the game.
+     * @param columnWidth - the width of a single column (in pixels).
+     * @param gradient    - the gradient of the terrain, x coordinates are divided by it before the noise.
+     * @param sineMode    - the way the sine function is evaluated.
+     */
+    public TerrainNoise(int seed, int columnWidth, int gradient, SineMode sineMode) {
+        this.seed = seed;
+        this.columnWidth = columnWidth;
+        this.gradient = gradient;
+        this.sineMode = sineMode;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method calc the noise number of the given x coordinate (the scalar path).
+     *
+     * @param x - the x coordinate.
+     * @return float - the noise number.
+     */
+    public float noiseAt(float x) {
+        float num = x / gradient;
+        num += seed;
+        double numToMult = (NUM1 * sin(NUM2 * num) - NUM3 *
+                sin(NUM4 * Math.E * num) + NUM5 * sin(NUM6 * Math.PI * num));
+        return (float) (NUM_ONE + HALF_FACTOR * numToMult);
+    }
+
+    /**
+     * This method calc the noise numbers of count consecutive block columns (the batch path).
+     *
+     * @param firstColumn - the index of the first column (x coordinate divided by the column width).
+     * @param noises      - the array to fill with the noise numbers, caller supplied.
+     * @param offset      - the index in noises of the first column.
+     * @param count       - the number of columns.
+     */
+    public void fillColumnsNoise(int firstColumn, float[] noises, int offset, int count) {
+        Scratch scratch = SCRATCH.get().ensureCapacity(count);
+        double[] nums = scratch.nums;
+        double[] sums = scratch.sums;
+        for (int i = 0; i < count; i++) {
+            float num = (float) ((firstColumn + i) * columnWidth) / gradient;
+            num += seed;
+            nums[i] = num;
+        }
+        if (sineMode == SineMode.EXACT) {
+            for (int i = 0; i < count; i++) sums[i] = NUM1 * Math.sin(NUM2 * nums[i]);
+            for (int i = 0; i < count; i++) sums[i] -= NUM3 * Math.sin(NUM4 * Math.E * nums[i]);
+            for (int i = 0; i < count; i++) sums[i] += NUM5 * Math.sin(NUM6 * Math.PI * nums[i]);
+        } else {
+            for (int i = 0; i < count; i++) sums[i] = NUM1 * tableSin(NUM2 * nums[i]);
+            for (int i = 0; i < count; i++) sums[i] -= NUM3 * tableSin(NUM4 * Math.E * nums[i]);
+            for (int i = 0; i < count; i++) sums[i] += NUM5 * tableSin(NUM6 * Math.PI * nums[i]);
+        }
+        for (int i = 0; i < count; i++) {
+            noises[offset + i] = (float) (NUM_ONE + HALF_FACTOR * sums[i]);
+        }
+    }
+
+    /**
+     * @return SineMode - the way the sine function is evaluated.
+     */
+    public SineMode sineMode() {
+        return sineMode;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Private methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method evaluates the sine function according to the sine mode.
+     *
+     * @param angle - angle in radians.
+     * @return double - the sine of the angle.
+     */
+    private double sin(double angle) {
+        return sineMode == SineMode.EXACT ? Math.sin(angle) : tableSin(angle);
+    }
+
+    /**
+     * This method evaluates the sine function by a linear interpolation of the sine table.
+     *
+     * @param angle - angle in radians.
+     * @return double - approximated sine of the angle.
+     */
+    private static double tableSin(double angle) {
+        double steps = angle * SINE_TABLE_STEPS_PER_RADIAN;
+        double floorSteps = Math.floor(steps);
+        int index = (int) ((long) floorSteps & (SINE_TABLE_SIZE - 1));
+        double fraction = steps - floorSteps;
+        return SINE_TABLE[index] + (SINE_TABLE[index + 1] - SINE_TABLE[index]) * fraction;
+    }
+
+    /**
+     * This method creates the sine table - one full period plus a closing entry for the interpolation.
+     *
+     * @return double array - the sine table.
+     */
+    private static double[] createSineTable() {
+        double[] table = new double[SINE_TABLE_SIZE + 1];
+        for (int i = 0; i <= SINE_TABLE_SIZE; i++) {
+            table[i] = Math.sin(i / SINE_TABLE_STEPS_PER_RADIAN);
+        }
+        return table;
+    }
+
+    /**
+     * This class holds the scratch arrays of the batch path of a single thread.
+     */
+    private static class Scratch {
+
+        // Data members
+        private double[] nums = new double[0];
+        private double[] sums = new double[0];
+
+
+        /**
+         * This method grows the arrays if they are shorter than the given capacity.
+         *
+         * @param capacity - the number of columns the arrays should hold.
+         * @return Scratch - this scratch.
+         */
+        private Scratch ensureCapacity(int capacity) {
+            if (nums.length < capacity) {
+                nums = new double[capacity];
+                sums = new double[capacity];
+            }
+            return this;
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.components.CoordinateSpace;
+import danogl.gui.rendering.TextRenderable;
+import danogl.util.Vector2;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * This class is a block of text lines drawn over the game, in the camera coordinates.
+ * Every line is a game object with a text renderable, the lines objects are created when first needed and
+ * reused afterwards. A hidden overlay has no objects in the game, so it costs nothing to the frame.
+ */
+public class TextOverlay {
+
+    // Constants
+    public static final float LINE_HEIGHT = 18;
+    private static final float LINE_WIDTH = 460;
+    private static final String TEXT_OVERLAY_TAG = "textOverlay";
+
+    // Data members
+    private final GameObjectCollection gameObjects;
+    private final int layer;
+    private final Vector2 topLeftCorner;
+    private final Color textColor;
+    private final List<GameObject> linesObjects;
+    private final List<TextRenderable> linesRenderables;
+    private int visibleLinesCount;
+    private boolean isVisible;
+
+
+    /**
+     * This is the Ctor of the class, the overlay starts hidden and empty.
+     *
+     * @param gameObjects   - game objects collection.
+     * @param layer         - the layer of the overlay.
+     * @param topLeftCorner - the top left corner of the first line, in the camera coordinates.
+     * @param textColor     - the color of the text.
+     */
+    public TextOverlay(GameObjectCollection gameObjects, int layer, Vector2 topLeftCorner, Color textColor) {
+        this.gameObjects = gameObjects;
+        this.layer = layer;
+        this.topLeftCorner = topLeftCorner;
+        this.textColor = textColor;
+        this.linesObjects = new ArrayList<>();
+        this.linesRenderables = new ArrayList<>();
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method shows or hides the overlay.
+     *
+     * @param isVisible - true for showing the overlay, false for hiding it.
+     */
+    public void setVisible(boolean isVisible) {
+        if (this.isVisible == isVisible) return;
+        this.isVisible = isVisible;
+        for (int i = 0; i < visibleLinesCount; i++) {
+            if (isVisible) {
+                gameObjects.addGameObject(linesObjects.get(i), layer);
+            } else {
+                gameObjects.removeGameObject(linesObjects.get(i), layer);
+            }
+        }
+    }
+
+    /**
+     * @return boolean - true if the overlay is shown, false else.
+     */
+    public boolean isVisible() {
+        return isVisible;
+    }
+
+    /**
+     * This method replaces the text of the overlay.
+     *
+     * @param lines - the lines of the text, from top to bottom.
+     */
+    public void setLines(List<String> lines) {
+        while (linesObjects.size() < lines.size()) createLine();
+        for (int i = 0; i < lines.size(); i++) linesRenderables.get(i).setString(lines.get(i));
+        // only the lines in use are in the game
+        if (isVisible) {
+            for (int i = visibleLinesCount; i < lines.size(); i++) {
+                gameObjects.addGameObject(linesObjects.get(i), layer);
+            }
+            for (int i = lines.size(); i < visibleLinesCount; i++) {
+                gameObjects.removeGameObject(linesObjects.get(i), layer);
+            }
+        }
+        visibleLinesCount = lines.size();
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Private methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method creates the object of the next line, out of the game.
+     */
+    private void createLine() {
+        TextRenderable lineRenderable = new TextRenderable("");
+        lineRenderable.setColor(textColor);
+        GameObject lineObject = new GameObject(
+                topLeftCorner.add(Vector2.DOWN.mult(LINE_HEIGHT * linesObjects.size())),
+                new Vector2(LINE_WIDTH, LINE_HEIGHT), lineRenderable);
+        lineObject.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+        lineObject.setTag(TEXT_OVERLAY_TAG);
+        linesObjects.add(lineObject);
+        linesRenderables.add(lineRenderable);
+    }
+
+}
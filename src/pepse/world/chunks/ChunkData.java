@@ -0,0 +1,78 @@
+package pepse.world.chunks;
+
+import pepse.world.trees.TreeData;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * This class holds the pure data of a single chunk - the ground heights of its columns and the data of its
+ * trees. It is computed in the data phase of the generation (on a worker thread), and turned
+ * into tiles and game objects in the commit phase (on the game thread).
+ */
+public class ChunkData {
+
+    // Data members
+    private final int chunkIndex;
+    private final List<TreeData> trees;
+    private float[] groundHeights;
+
+
+    /**
+     * This is the Ctor of the class
+     *
+     * @param chunkIndex - the index of the chunk.
+     */
+    public ChunkData(int chunkIndex) {
+        this.chunkIndex = chunkIndex;
+        this.trees = new ArrayList<>();
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * @return int - the index of the chunk.
+     */
+    public int chunkIndex() {
+        return chunkIndex;
+    }
+
+    /**
+     * @return int - the first x coordinate of the chunk.
+     */
+    public int minX() {
+        return WorldChunkManager.chunkMinX(chunkIndex);
+    }
+
+    /**
+     * This method sets the ground data of the chunk.
+     *
+     * @param groundHeights - the ground heights of the chunk columns, from left to right.
+     */
+    public void setGround(float[] groundHeights) {
+        this.groundHeights = groundHeights;
+    }
+
+    /**
+     * @return float array - the ground heights of the chunk columns.
+     */
+    public float[] groundHeights() {
+        return groundHeights;
+    }
+
+    /**
+     * @param treeData - the data of a tree of the chunk.
+     */
+    public void addTree(TreeData treeData) {
+        trees.add(treeData);
+    }
+
+    /**
+     * @return List - the data of the trees of the chunk.
+     */
+    public List<TreeData> trees() {
+        return trees;
+    }
+
+}
@@ -0,0 +1,81 @@
+package pepse.world.chunks;
+
+import pepse.world.Terrain;
+import pepse.world.tiles.TileMap;
+import pepse.world.trees.Tree;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+
+/**
+ * This class is responsible for generating the chunks of the world in two phases.
+ * The data phase computes the pure data of a chunk (ground heights, trunks heights and leaves masks) and
+ * may run on a worker thread of a fork-join pool. The commit phase turns the data into tiles and game
+ * objects and must run on the game thread.
+ * Every random value of a chunk is drawn from HashRandom by the seed of the game and its world coordinates,
+ * so a chunk is the same no matter on which thread, or in which order, it was generated.
+ */
+public class ChunkGenerator {
+
+    // Data members
+    private final Terrain terrain;
+    private final Tree tree;
+    private final TileMap tileMap;
+    private final Executor executor;
+
+
+    /**
+     * This is the Ctor of the class
+     *
+     * @param terrain  - the terrain of the game.
+     * @param tree     - the trees creator of the game.
+     * @param tileMap  - the tile map the chunks tiles are stored in.
+     * @param executor - the executor the data phase runs on.
+     */
+    public ChunkGenerator(Terrain terrain, Tree tree, TileMap tileMap, Executor executor) {
+        this.terrain = terrain;
+        this.tree = tree;
+        this.tileMap = tileMap;
+        this.executor = executor;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method runs the data phase of the given chunk on the calling thread.
+     *
+     * @param chunkIndex - the index of the chunk.
+     * @return ChunkData - the data of the chunk.
+     */
+    public ChunkData generate(int chunkIndex) {
+        ChunkData chunkData = new ChunkData(chunkIndex);
+        terrain.generateChunkData(chunkData);
+        tree.generateChunkData(chunkData);
+        return chunkData;
+    }
+
+    /**
+     * This method runs the data phase of the given chunk on the executor.
+     *
+     * @param chunkIndex - the index of the chunk.
+     * @return CompletableFuture - the future data of the chunk.
+     */
+    public CompletableFuture<ChunkData> generateAsync(int chunkIndex) {
+        return CompletableFuture.supplyAsync(() -> generate(chunkIndex), executor);
+    }
+
+    /**
+     * This method runs the commit phase of the given chunk - creates its tiles and its objects in the game
+     * (the terrain creates the tiles of the chunk, so it commits first), and starts baking the image of its
+     * tiles. Must be called on the game thread.
+     *
+     * @param chunkData - the data of the chunk.
+     */
+    public void commit(ChunkData chunkData) {
+        terrain.commitChunk(chunkData);
+        tree.commitChunk(chunkData);
+        tileMap.bakeChunk(chunkData.chunkIndex());
+    }
+
+}
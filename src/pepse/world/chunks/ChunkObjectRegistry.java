@@ -0,0 +1,204 @@
+package pepse.world.chunks;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import pepse.world.StaticCollisionGrid;
+import pepse.world.trees.Leaf;
+import pepse.world.trees.LeafPool;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * This class is responsible for adding the world objects to the game and recording, at creation time, to
+ * which chunk (x range) and to which layer each one of them belongs.
+ * This way a whole chunk can be removed from the game in O(objects removed) instead of scanning the whole
+ * game objects collection, and the removed leaves are returned to the LeafPool.
+ * Static colliders (which are not in the game, their chunk tiles draw them) are inserted to the
+ * StaticCollisionGrid, and removed from it together with their chunk.
+ * Every added and removed object is counted by the EntityCensus as it passes, so the census is always up
+ * to date without scanning the objects.
+ */
+public class ChunkObjectRegistry {
+
+    // Constants
+    private static final int NO_LAYER = EntityCensus.NO_LAYER;
+
+    // Data members
+    private final GameObjectCollection gameObjects;
+    private final LeafPool leafPool;
+    private final StaticCollisionGrid staticCollisionGrid;
+    private final EntityCensus entityCensus;
+    private final Map<Integer, ArrayList<RegisteredObject>> chunksObjects;
+    private int registeredObjectsCount;
+
+
+    /**
+     * This is the Ctor of the class
+     *
+     * @param gameObjects         - game objects collection.
+     * @param leafPool            - the pool the leaves of the removed chunks are returned to.
+     * @param staticCollisionGrid - the broadphase grid of the static collidable objects.
+     * @param entityCensus        - the census the added and removed objects are counted by.
+     */
+    public ChunkObjectRegistry(GameObjectCollection gameObjects, LeafPool leafPool,
+                               StaticCollisionGrid staticCollisionGrid, EntityCensus entityCensus) {
+        this.gameObjects = gameObjects;
+        this.leafPool = leafPool;
+        this.staticCollisionGrid = staticCollisionGrid;
+        this.entityCensus = entityCensus;
+        this.chunksObjects = new HashMap<>();
+    }
+
+    /**
+     * This is the Ctor of the class, counts the objects by a census of its own.
+     *
+     * @param gameObjects         - game objects collection.
+     * @param leafPool            - the pool the leaves of the removed chunks are returned to.
+     * @param staticCollisionGrid - the broadphase grid of the static collidable objects.
+     */
+    public ChunkObjectRegistry(GameObjectCollection gameObjects, LeafPool leafPool,
+                               StaticCollisionGrid staticCollisionGrid) {
+        this(gameObjects, leafPool, staticCollisionGrid, new EntityCensus());
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method adds the given object to the game and registers it to the chunk of the given anchor.
+     *
+     * @param gameObject - the object to add.
+     * @param layer      - the layer of the object.
+     * @param anchorX    - the x coordinate that decides the owner chunk of the object (for example, all the
+     *                   leaves of a tree are anchored to the trunk, so they are removed together with it).
+     */
+    public void add(GameObject gameObject, int layer, float anchorX) {
+        gameObjects.addGameObject(gameObject, layer);
+        register(gameObject, layer, anchorX, false);
+    }
+
+    /**
+     * This method adds the first objects of the given array to the game in a single pass, all of them in the
+     * same layer and registered to the chunk of the same anchor (the chunk objects list grows once).
+     *
+     * @param gameObjects - the objects to add.
+     * @param count       - the number of the objects to add from the start of the array.
+     * @param layer       - the layer of the objects.
+     * @param anchorX     - the x coordinate that decides the owner chunk of the objects.
+     */
+    public void addAll(GameObject[] gameObjects, int count, int layer, float anchorX) {
+        int chunkIndex = WorldChunkManager.chunkIndexAt(anchorX);
+        ArrayList<RegisteredObject> chunkObjects = chunkObjectsAt(chunkIndex);
+        chunkObjects.ensureCapacity(chunkObjects.size() + count);
+        for (int i = 0; i < count; i++) {
+            this.gameObjects.addGameObject(gameObjects[i], layer);
+            chunkObjects.add(new RegisteredObject(gameObjects[i], layer, false));
+            entityCensus.add(gameObjects[i], layer, chunkIndex);
+        }
+        registeredObjectsCount += count;
+    }
+
+    /**
+     * This method registers the given static collider to the chunk of the given anchor and inserts it to
+     * the static collision grid, without adding it to the game - for static objects that are drawn by their
+     * chunk tiles and only need to collide.
+     *
+     * @param collider - the static collider.
+     * @param anchorX  - the x coordinate that decides the owner chunk of the collider.
+     */
+    public void addStaticCollider(GameObject collider, float anchorX) {
+        register(collider, NO_LAYER, anchorX, true);
+        staticCollisionGrid.insert(collider);
+    }
+
+    /**
+     * This method removes from the game all the objects that were registered to the given chunk, and
+     * returns its blocks to the pool.
+     *
+     * @param chunkIndex - the index of the chunk.
+     * @return int - the number of the removed objects.
+     */
+    public int removeChunk(int chunkIndex) {
+        List<RegisteredObject> chunkObjects = chunksObjects.remove(chunkIndex);
+        if (chunkObjects == null) return 0;
+        for (RegisteredObject registeredObject : chunkObjects) {
+            entityCensus.remove(registeredObject.gameObject, registeredObject.layer, chunkIndex);
+            if (registeredObject.layer != NO_LAYER) {
+                gameObjects.removeGameObject(registeredObject.gameObject, registeredObject.layer);
+            }
+            if (registeredObject.isCollidable) staticCollisionGrid.remove(registeredObject.gameObject);
+            if (registeredObject.gameObject instanceof Leaf) {
+                leafPool.release((Leaf) registeredObject.gameObject);
+            }
+        }
+        registeredObjectsCount -= chunkObjects.size();
+        return chunkObjects.size();
+    }
+
+    /**
+     * This method registers the given object to the chunk of the given anchor.
+     *
+     * @param gameObject   - the object to register.
+     * @param layer        - the layer of the object in the game, NO_LAYER if it is not in the game.
+     * @param anchorX      - the x coordinate that decides the owner chunk of the object.
+     * @param isCollidable - true if the object is in the static collision grid.
+     */
+    private void register(GameObject gameObject, int layer, float anchorX, boolean isCollidable) {
+        int chunkIndex = WorldChunkManager.chunkIndexAt(anchorX);
+        chunkObjectsAt(chunkIndex).add(new RegisteredObject(gameObject, layer, isCollidable));
+        registeredObjectsCount++;
+        entityCensus.add(gameObject, layer, chunkIndex);
+    }
+
+    /**
+     * @param chunkIndex - the index of the chunk.
+     * @return ArrayList - the list of the objects registered to the given chunk (created if it doesn't
+     * exist yet).
+     */
+    private ArrayList<RegisteredObject> chunkObjectsAt(int chunkIndex) {
+        return chunksObjects.computeIfAbsent(chunkIndex, k -> new ArrayList<>());
+    }
+
+    /**
+     * @param chunkIndex - the index of the chunk.
+     * @return int - the number of the objects registered to the given chunk.
+     */
+    public int chunkObjectsCount(int chunkIndex) {
+        List<RegisteredObject> chunkObjects = chunksObjects.get(chunkIndex);
+        return chunkObjects == null ? 0 : chunkObjects.size();
+    }
+
+    /**
+     * @return int - the number of the objects registered to all the chunks.
+     */
+    public int registeredObjectsCount() {
+        return registeredObjectsCount;
+    }
+
+    /**
+     * @return EntityCensus - the census the registered objects are counted by.
+     */
+    public EntityCensus entityCensus() {
+        return entityCensus;
+    }
+
+    /**
+     * This class represent a single registered object - the object itself, its layer and whether it is in
+     * the static collision grid.
+     */
+    private static class RegisteredObject {
+        private final GameObject gameObject;
+        private final int layer;
+        private final boolean isCollidable;
+
+        private RegisteredObject(GameObject gameObject, int layer, boolean isCollidable) {
+            this.gameObject = gameObject;
+            this.layer = layer;
+            this.isCollidable = isCollidable;
+        }
+    }
+
+}
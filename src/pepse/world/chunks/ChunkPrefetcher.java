@@ -0,0 +1,144 @@
+package pepse.world.chunks;
+
+/**
+ * This class is responsible for predicting which chunks the avatar is about to need, by his velocity and
+ * his recent direction, so the WorldChunkManager can generate them in the background ahead of time.
+ * The velocity is smoothed over DIRECTION_SMOOTHING_TIME seconds so a short tap on the opposite key
+ * won't flip the prediction. The prediction is kept while the avatar stands, and the speculative chunks
+ * of the old side are dropped only when the direction reverses.
+ * The class also counts the prefetch hits and misses, for tuning the time horizon.
+ */
+public class ChunkPrefetcher {
+
+    // Constants
+    public static final float DEFAULT_HORIZON = 2f;
+    public static final int DEFAULT_MAX_SPECULATIVE_CHUNKS = 4;
+    private static final float DIRECTION_SMOOTHING_TIME = 0.25f;
+    private static final float MIN_MOVING_VELOCITY = 1f;
+
+    // Data members
+    private final float horizon;
+    private final int maxSpeculativeChunks;
+    private float smoothedVelocityX;
+    private int direction;
+    private int speculativeChunks;
+    private int hitsCount;
+    private int missesCount;
+    private int droppedCount;
+    private int reversalsCount;
+
+
+    /**
+     * This is the Ctor of the class
+     *
+     * @param horizon              - the time horizon (in seconds) of the prediction.
+     * @param maxSpeculativeChunks - max number of chunks to prefetch beyond the view distance.
+     */
+    public ChunkPrefetcher(float horizon, int maxSpeculativeChunks) {
+        this.horizon = horizon;
+        this.maxSpeculativeChunks = maxSpeculativeChunks;
+    }
+
+    /**
+     * This is the default Ctor of the class, predicts DEFAULT_HORIZON seconds ahead.
+     */
+    public ChunkPrefetcher() {
+        this(DEFAULT_HORIZON, DEFAULT_MAX_SPECULATIVE_CHUNKS);
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method updates the prediction by the current location and velocity of the avatar.
+     *
+     * @param xCoord    - the x coordinate of the avatar.
+     * @param velocityX - the horizontal velocity of the avatar.
+     * @param deltaTime - the time passed since the last update.
+     */
+    public void update(float xCoord, float velocityX, float deltaTime) {
+        float blend = Math.min(Math.max(deltaTime, 0) / DIRECTION_SMOOTHING_TIME, 1);
+        smoothedVelocityX += (velocityX - smoothedVelocityX) * blend;
+        if (Math.abs(smoothedVelocityX) < MIN_MOVING_VELOCITY) return;
+        int newDirection = smoothedVelocityX > 0 ? 1 : -1;
+        if (direction != 0 && newDirection != direction) reversalsCount++;
+        direction = newDirection;
+        int predictedChunk = WorldChunkManager.chunkIndexAt(xCoord + smoothedVelocityX * horizon);
+        speculativeChunks = Math.min(Math.abs(predictedChunk - WorldChunkManager.chunkIndexAt(xCoord)),
+                maxSpeculativeChunks);
+    }
+
+    /**
+     * @param centerChunk    - the chunk of the avatar.
+     * @param staticDistance - the distance (in chunks) that is prefetched in both directions.
+     * @return int - the lowest index of a chunk that should be generated.
+     */
+    public int lowestPrefetchedChunk(int centerChunk, int staticDistance) {
+        return centerChunk - staticDistance - (direction < 0 ? speculativeChunks : 0);
+    }
+
+    /**
+     * @param centerChunk    - the chunk of the avatar.
+     * @param staticDistance - the distance (in chunks) that is prefetched in both directions.
+     * @return int - the highest index of a chunk that should be generated.
+     */
+    public int highestPrefetchedChunk(int centerChunk, int staticDistance) {
+        return centerChunk + staticDistance + (direction > 0 ? speculativeChunks : 0);
+    }
+
+    /**
+     * This method records a needed chunk that its background generation was already done.
+     */
+    public void recordHit() {
+        hitsCount++;
+    }
+
+    /**
+     * This method records a needed chunk that was generated on the spot, or waited for.
+     */
+    public void recordMiss() {
+        missesCount++;
+    }
+
+    /**
+     * This method records a background generation request that was dropped before its chunk was needed.
+     */
+    public void recordDropped() {
+        droppedCount++;
+    }
+
+    /**
+     * @return int - the number of the needed chunks that were ready.
+     */
+    public int hitsCount() {
+        return hitsCount;
+    }
+
+    /**
+     * @return int - the number of the needed chunks that were not ready.
+     */
+    public int missesCount() {
+        return missesCount;
+    }
+
+    /**
+     * @return int - the number of the dropped background generation requests.
+     */
+    public int droppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * @return int - the number of the times the direction of the avatar reversed.
+     */
+    public int reversalsCount() {
+        return reversalsCount;
+    }
+
+    /**
+     * @return int - the number of chunks currently prefetched beyond the view distance.
+     */
+    public int speculativeChunksCount() {
+        return direction == 0 ? 0 : speculativeChunks;
+    }
+
+}
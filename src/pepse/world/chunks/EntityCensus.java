@@ -0,0 +1,259 @@
+package pepse.world.chunks;
+
+import danogl.GameObject;
+import pepse.world.trees.Leaf;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+
+/**
+ * This class counts the live world objects by their tag, by their layer and by their chunk, with the
+ * estimated bytes they retain and the number of the components and transitions attached to them.
+ * The counts are kept incrementally - every object is counted once when it is added and once when it is
+ * removed (by the ChunkObjectRegistry, or by the game for the objects that are not streamed with the
+ * chunks), so a query never scans the objects.
+ * The components and transitions are not read from the objects (danogl doesn't expose the components of
+ * an object) - they are the static estimates the caller declares for the objects it created.
+ * The bytes are a rough estimate of the object itself (a danogl GameObject with its transform, renderer
+ * and physics) plus the state a leaf has in the LeafSystem - the shared renderables and the tiles are not
+ * counted here (the tiles are counted by the TileMap).
+ */
+public class EntityCensus {
+
+    // Constants
+    public static final String UNTAGGED = "untagged";
+    // the layer of the objects that are not in the game, like the static colliders
+    public static final int NO_LAYER = Integer.MIN_VALUE;
+    public static final int NO_CHUNK = Integer.MIN_VALUE;
+    private static final long GAME_OBJECT_BYTES = 320;
+    private static final long LEAF_STATE_BYTES = 64;
+    private static final long COMPONENT_BYTES = 48;
+    private static final long TRANSITION_BYTES = 96;
+
+    // Data members
+    private final Map<String, TagCount> tagsCounts;
+    private final Map<Integer, Integer> layersCounts;
+    private final Map<Integer, Integer> chunksCounts;
+    private int objectsCount;
+    private long estimatedBytes;
+
+
+    /**
+     * This is the Ctor of the class, nothing is counted.
+     */
+    public EntityCensus() {
+        this.tagsCounts = new HashMap<>();
+        this.layersCounts = new HashMap<>();
+        this.chunksCounts = new HashMap<>();
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method counts an added object that has no components.
+     *
+     * @param gameObject - the added object.
+     * @param layer      - the layer of the object, NO_LAYER if it is not in the game.
+     * @param chunkIndex - the chunk of the object, NO_CHUNK if it is not streamed with the chunks.
+     */
+    public void add(GameObject gameObject, int layer, int chunkIndex) {
+        add(gameObject, layer, chunkIndex, 0, 0);
+    }
+
+    /**
+     * This method counts an added object.
+     *
+     * @param gameObject       - the added object.
+     * @param layer            - the layer of the object, NO_LAYER if it is not in the game.
+     * @param chunkIndex       - the chunk of the object, NO_CHUNK if it is not streamed with the chunks.
+     * @param componentsCount  - the number of the components attached to the object (not transitions).
+     * @param transitionsCount - the number of the transitions attached to the object.
+     */
+    public void add(GameObject gameObject, int layer, int chunkIndex, int componentsCount,
+                    int transitionsCount) {
+        count(gameObject, layer, chunkIndex, componentsCount, transitionsCount, 1);
+    }
+
+    /**
+     * This method uncounts a removed object that has no components.
+     *
+     * @param gameObject - the removed object, with the tag it was added with.
+     * @param layer      - the layer of the object, NO_LAYER if it was not in the game.
+     * @param chunkIndex - the chunk of the object, NO_CHUNK if it was not streamed with the chunks.
+     */
+    public void remove(GameObject gameObject, int layer, int chunkIndex) {
+        count(gameObject, layer, chunkIndex, 0, 0, -1);
+    }
+
+    /**
+     * This method uncounts a removed object.
+     *
+     * @param gameObject       - the removed object, with the tag it was added with.
+     * @param layer            - the layer of the object, NO_LAYER if it was not in the game.
+     * @param chunkIndex       - the chunk of the object, NO_CHUNK if it was not streamed with the chunks.
+     * @param componentsCount  - the number of the components attached to the object (not transitions).
+     * @param transitionsCount - the number of the transitions attached to the object.
+     */
+    public void remove(GameObject gameObject, int layer, int chunkIndex, int componentsCount,
+                       int transitionsCount) {
+        count(gameObject, layer, chunkIndex, componentsCount, transitionsCount, -1);
+    }
+
+    /**
+     * @return Set - the tags of the live objects, sorted.
+     */
+    public Set<String> tags() {
+        return new TreeSet<>(tagsCounts.keySet());
+    }
+
+    /**
+     * @return Set - the layers of the live objects, sorted (NO_LAYER first).
+     */
+    public Set<Integer> layers() {
+        return new TreeSet<>(layersCounts.keySet());
+    }
+
+    /**
+     * @return Set - the chunks of the live objects, sorted (NO_CHUNK first).
+     */
+    public Set<Integer> chunks() {
+        return new TreeSet<>(chunksCounts.keySet());
+    }
+
+    /**
+     * @param tag - tag of objects (UNTAGGED for the objects without a tag).
+     * @return int - the number of the live objects with the given tag.
+     */
+    public int tagCount(String tag) {
+        TagCount tagCount = tagsCounts.get(tag);
+        return tagCount == null ? 0 : tagCount.objectsCount;
+    }
+
+    /**
+     * @param tag - tag of objects.
+     * @return long - the estimated bytes the live objects with the given tag retain.
+     */
+    public long tagEstimatedBytes(String tag) {
+        TagCount tagCount = tagsCounts.get(tag);
+        return tagCount == null ? 0 : tagCount.estimatedBytes;
+    }
+
+    /**
+     * @param tag - tag of objects.
+     * @return int - the estimated number of the components (not transitions) attached to the live objects
+     * with the given tag, as declared when they were counted.
+     */
+    public int tagComponentsCount(String tag) {
+        TagCount tagCount = tagsCounts.get(tag);
+        return tagCount == null ? 0 : tagCount.componentsCount;
+    }
+
+    /**
+     * @param tag - tag of objects.
+     * @return int - the estimated number of the transitions attached to the live objects with the given
+     * tag, as declared when they were counted.
+     */
+    public int tagTransitionsCount(String tag) {
+        TagCount tagCount = tagsCounts.get(tag);
+        return tagCount == null ? 0 : tagCount.transitionsCount;
+    }
+
+    /**
+     * @param layer - layer of the game (or NO_LAYER).
+     * @return int - the number of the live objects in the given layer.
+     */
+    public int layerCount(int layer) {
+        return layersCounts.getOrDefault(layer, 0);
+    }
+
+    /**
+     * @param chunkIndex - index of a chunk (or NO_CHUNK).
+     * @return int - the number of the live objects of the given chunk.
+     */
+    public int chunkCount(int chunkIndex) {
+        return chunksCounts.getOrDefault(chunkIndex, 0);
+    }
+
+    /**
+     * @return int - the number of all the live objects.
+     */
+    public int objectsCount() {
+        return objectsCount;
+    }
+
+    /**
+     * @return long - the estimated bytes all the live objects retain.
+     */
+    public long estimatedBytes() {
+        return estimatedBytes;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Private methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method adds the given object to the counts, or subtracts it from them.
+     *
+     * @param gameObject       - the object.
+     * @param layer            - the layer of the object.
+     * @param chunkIndex       - the chunk of the object.
+     * @param componentsCount  - the number of the components attached to the object.
+     * @param transitionsCount - the number of the transitions attached to the object.
+     * @param sign             - 1 for adding the object, -1 for subtracting it.
+     */
+    private void count(GameObject gameObject, int layer, int chunkIndex, int componentsCount,
+                       int transitionsCount, int sign) {
+        String tag = gameObject.getTag() == null ? UNTAGGED : gameObject.getTag();
+        long bytes = estimateBytes(gameObject, componentsCount, transitionsCount);
+        TagCount tagCount = tagsCounts.computeIfAbsent(tag, k -> new TagCount());
+        tagCount.objectsCount += sign;
+        tagCount.estimatedBytes += sign * bytes;
+        tagCount.componentsCount += sign * componentsCount;
+        tagCount.transitionsCount += sign * transitionsCount;
+        if (tagCount.objectsCount == 0) tagsCounts.remove(tag);
+        countIn(layersCounts, layer, sign);
+        countIn(chunksCounts, chunkIndex, sign);
+        objectsCount += sign;
+        estimatedBytes += sign * bytes;
+    }
+
+    /**
+     * @param counts - counts by key, a key whose count gets to 0 is removed.
+     * @param key    - the key to count.
+     * @param sign   - 1 for adding, -1 for subtracting.
+     */
+    private static void countIn(Map<Integer, Integer> counts, int key, int sign) {
+        int count = counts.getOrDefault(key, 0) + sign;
+        if (count == 0) {
+            counts.remove(key);
+        } else {
+            counts.put(key, count);
+        }
+    }
+
+    /**
+     * @param gameObject       - the object.
+     * @param componentsCount  - the number of the components attached to the object.
+     * @param transitionsCount - the number of the transitions attached to the object.
+     * @return long - the estimated bytes the object retains.
+     */
+    private static long estimateBytes(GameObject gameObject, int componentsCount, int transitionsCount) {
+        long bytes = GAME_OBJECT_BYTES + componentsCount * COMPONENT_BYTES +
+                transitionsCount * TRANSITION_BYTES;
+        if (gameObject instanceof Leaf) bytes += LEAF_STATE_BYTES;
+        return bytes;
+    }
+
+    /**
+     * This class represent the counts of a single tag.
+     */
+    private static class TagCount {
+        private int objectsCount;
+        private long estimatedBytes;
+        private int componentsCount;
+        private int transitionsCount;
+    }
+
+}
@@ -0,0 +1,244 @@
+package pepse.world.chunks;
+
+import pepse.world.Block;
+import pepse.world.Terrain;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+
+/**
+ * This class is responsible for streaming the world of the game in fixed-width chunks.
+ * The x axis is split into chunks of CHUNK_WIDTH pixels keyed by their chunk index (chunk i covers the
+ * coordinates [i * CHUNK_WIDTH, (i + 1) * CHUNK_WIDTH)), and whole chunks (terrain blocks, trunks and
+ * leaves) are loaded and unloaded around the avatar according to the view distance.
+ * The chunks right outside the view distance, and the chunks the ChunkPrefetcher predicts the avatar is
+ * heading to, are generated in the background by the ChunkGenerator. The ones right outside the view
+ * distance are also committed to the game a few per frame, so they are ready before the avatar reaches
+ * them.
+ */
+public class WorldChunkManager {
+
+    // Constants
+    public static final int CHUNK_WIDTH_IN_BLOCKS = 28;
+    public static final int CHUNK_WIDTH = CHUNK_WIDTH_IN_BLOCKS * Block.SIZE;
+    private static final int UNLOAD_MARGIN = 1;
+    // must not exceed UNLOAD_MARGIN, otherwise prefetched chunks are unloaded right after their commit
+    private static final int PREFETCH_DISTANCE = 1;
+    private static final int MAX_COMMITS_PER_FRAME = 1;
+
+    // Data members
+    private final ChunkObjectRegistry chunkObjectRegistry;
+    private final ChunkGenerator chunkGenerator;
+    private final ChunkPrefetcher chunkPrefetcher;
+    private final Terrain terrain;
+    private final int viewDistance;
+    private final Set<Integer> loadedChunks;
+    private final Map<Integer, CompletableFuture<ChunkData>> pendingChunks;
+
+
+    /**
+     * This is the Ctor of the class
+     *
+     * @param chunkObjectRegistry - the registry the terrain and the trees register their objects to.
+     * @param chunkGenerator      - the generator of the chunks.
+     * @param chunkPrefetcher     - the predictor of the chunks the avatar is heading to.
+     * @param terrain             - the terrain of the game, evicts the ground heights of unloaded chunks.
+     * @param viewDistance        - number of chunks to keep loaded on each side of the avatar chunk.
+     */
+    public WorldChunkManager(ChunkObjectRegistry chunkObjectRegistry, ChunkGenerator chunkGenerator,
+                             ChunkPrefetcher chunkPrefetcher, Terrain terrain, int viewDistance) {
+        this.chunkObjectRegistry = chunkObjectRegistry;
+        this.chunkGenerator = chunkGenerator;
+        this.chunkPrefetcher = chunkPrefetcher;
+        this.terrain = terrain;
+        this.viewDistance = viewDistance;
+        this.loadedChunks = new HashSet<>();
+        this.pendingChunks = new HashMap<>();
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method calc the index of the chunk that contains the given x coordinate.
+     *
+     * @param x - horizontal coord in the world.
+     * @return int - the index of the chunk.
+     */
+    public static int chunkIndexAt(float x) {
+        return Math.floorDiv((int) Math.floor(x), CHUNK_WIDTH);
+    }
+
+    /**
+     * This method calc the first x coordinate of the given chunk.
+     *
+     * @param chunkIndex - the index of the chunk.
+     * @return int - the left border of the chunk (block aligned).
+     */
+    public static int chunkMinX(int chunkIndex) {
+        return chunkIndex * CHUNK_WIDTH;
+    }
+
+    /**
+     * This method keeps the world loaded around the given x coordinate (the avatar center).
+     * Loads every missing chunk in the view distance (waiting for its background generation if it isn't
+     * done yet), commits background generated chunks, requests the background generation of the chunks
+     * right outside the view distance and of the predicted ones, and unloads the chunks that got out of
+     * the view distance (with a margin of UNLOAD_MARGIN chunks, so walking on a chunk border won't thrash).
+     *
+     * @param xCoord    - the x coordinate to stream the world around.
+     * @param velocityX - the horizontal velocity of the avatar, for the prediction.
+     * @param deltaTime - the time passed since the last update.
+     */
+    public void update(float xCoord, float velocityX, float deltaTime) {
+        chunkPrefetcher.update(xCoord, velocityX, deltaTime);
+        int centerChunk = chunkIndexAt(xCoord);
+        // loading comes before unloading, so blocks released in this frame are reused only on a later frame
+        for (int chunkIndex = centerChunk - viewDistance; chunkIndex <= centerChunk + viewDistance;
+             chunkIndex++) {
+            if (!loadedChunks.contains(chunkIndex)) loadChunk(chunkIndex);
+        }
+        int prefetchDistance = viewDistance + PREFETCH_DISTANCE;
+        int lowestPrefetchedChunk = chunkPrefetcher.lowestPrefetchedChunk(centerChunk, prefetchDistance);
+        int highestPrefetchedChunk = chunkPrefetcher.highestPrefetchedChunk(centerChunk, prefetchDistance);
+        dropPendingChunksOutOf(lowestPrefetchedChunk, highestPrefetchedChunk);
+        commitGeneratedChunks(centerChunk - prefetchDistance, centerChunk + prefetchDistance);
+        for (int chunkIndex = lowestPrefetchedChunk; chunkIndex <= highestPrefetchedChunk; chunkIndex++) {
+            if (!loadedChunks.contains(chunkIndex) && !pendingChunks.containsKey(chunkIndex)) {
+                pendingChunks.put(chunkIndex, chunkGenerator.generateAsync(chunkIndex));
+            }
+        }
+        List<Integer> chunksToUnload = new ArrayList<>();
+        for (int chunkIndex : loadedChunks) {
+            if (Math.abs(chunkIndex - centerChunk) > viewDistance + UNLOAD_MARGIN) {
+                chunksToUnload.add(chunkIndex);
+            }
+        }
+        for (int chunkIndex : chunksToUnload) unloadChunk(chunkIndex);
+    }
+
+    /**
+     * @param chunkIndex - the index of the chunk.
+     * @return boolean - true if the chunk is currently loaded, false otherwise.
+     */
+    public boolean isChunkLoaded(int chunkIndex) {
+        return loadedChunks.contains(chunkIndex);
+    }
+
+    /**
+     * @return int - the number of the currently loaded chunks.
+     */
+    public int loadedChunksCount() {
+        return loadedChunks.size();
+    }
+
+    /**
+     * @param viewDistance - number of chunks to keep loaded on each side of the avatar chunk.
+     * @return int - the max number of the chunks that are loaded at once with the given view distance (the
+     * prefetched chunks are within the unload margin).
+     */
+    public static int maxLoadedChunksCount(int viewDistance) {
+        return 2 * (viewDistance + UNLOAD_MARGIN) + 1;
+    }
+
+    /**
+     * @return int - the number of the chunks that their background generation was requested and that
+     * were not loaded yet.
+     */
+    public int pendingChunksCount() {
+        return pendingChunks.size();
+    }
+
+    /**
+     * @return ChunkPrefetcher - the predictor of the chunks, holds the prefetch hits and misses counters.
+     */
+    public ChunkPrefetcher chunkPrefetcher() {
+        return chunkPrefetcher;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Private methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method loads the given chunk - takes its background generated data (waits for it if it isn't
+     * done yet) or generates it on the spot if it wasn't requested, and commits it to the game.
+     *
+     * @param chunkIndex - the index of the chunk to load.
+     */
+    private void loadChunk(int chunkIndex) {
+        CompletableFuture<ChunkData> pendingChunk = pendingChunks.remove(chunkIndex);
+        if (pendingChunk != null && pendingChunk.isDone()) {
+            chunkPrefetcher.recordHit();
+        } else {
+            chunkPrefetcher.recordMiss();
+        }
+        ChunkData chunkData = pendingChunk != null && !pendingChunk.isCompletedExceptionally() ?
+                pendingChunk.join() : chunkGenerator.generate(chunkIndex);
+        chunkGenerator.commit(chunkData);
+        loadedChunks.add(chunkIndex);
+    }
+
+    /**
+     * This method commits to the game up to MAX_COMMITS_PER_FRAME chunks in the given range that their
+     * background generation is done, so the commits are spread over the frames. The data of the further
+     * (speculative) chunks is kept until they are needed.
+     *
+     * @param minChunk - the lowest index of a chunk to commit.
+     * @param maxChunk - the highest index of a chunk to commit.
+     */
+    private void commitGeneratedChunks(int minChunk, int maxChunk) {
+        int commitsCount = 0;
+        Iterator<Map.Entry<Integer, CompletableFuture<ChunkData>>> iterator =
+                pendingChunks.entrySet().iterator();
+        while (iterator.hasNext() && commitsCount < MAX_COMMITS_PER_FRAME) {
+            Map.Entry<Integer, CompletableFuture<ChunkData>> pendingChunk = iterator.next();
+            int chunkIndex = pendingChunk.getKey();
+            if (chunkIndex >= minChunk && chunkIndex <= maxChunk && pendingChunk.getValue().isDone() &&
+                    !pendingChunk.getValue().isCompletedExceptionally()) {
+                iterator.remove();
+                chunkGenerator.commit(pendingChunk.getValue().join());
+                loadedChunks.add(chunkIndex);
+                chunkPrefetcher.recordHit();
+                commitsCount++;
+            }
+        }
+    }
+
+    /**
+     * This method drops the background generation requests of the chunks out of the given range (chunks
+     * that got too far, or speculative chunks of the old side after the avatar reversed).
+     *
+     * @param minChunk - the lowest index of a kept request.
+     * @param maxChunk - the highest index of a kept request.
+     */
+    private void dropPendingChunksOutOf(int minChunk, int maxChunk) {
+        Iterator<Map.Entry<Integer, CompletableFuture<ChunkData>>> iterator =
+                pendingChunks.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, CompletableFuture<ChunkData>> pendingChunk = iterator.next();
+            if (pendingChunk.getKey() < minChunk || pendingChunk.getKey() > maxChunk) {
+                pendingChunk.getValue().cancel(false);
+                iterator.remove();
+                chunkPrefetcher.recordDropped();
+            }
+        }
+    }
+
+    /**
+     * This method removes all the world objects (ground, trunks and leaves) of the given chunk and evicts
+     * its ground heights.
+     *
+     * @param chunkIndex - the index of the chunk to unload.
+     */
+    private void unloadChunk(int chunkIndex) {
+        chunkObjectRegistry.removeChunk(chunkIndex);
+        terrain.unloadChunk(chunkIndex);
+        loadedChunks.remove(chunkIndex);
+    }
+
+}
@@ -4,9 +4,8 @@ import danogl.GameObject;
 import danogl.collisions.GameObjectCollection;
 import danogl.components.CoordinateSpace;
 import danogl.components.Transition;
-import danogl.gui.rendering.RectangleRenderable;
 import danogl.util.Vector2;
-import pepse.util.ColorSupplier;
+import pepse.util.ColorPalette;
 
 import java.awt.*;
 
@@ -17,6 +16,9 @@ import java.awt.*;
 public class Night {
 
     // Constants
+    // the number of the transitions create attaches to the night - a static estimate for the census, as
+    // danogl doesn't expose the components of an object
+    public static final int ESTIMATED_TRANSITIONS_COUNT = 1;
     private static final String NIGHT_TAG = "night";
     private static final Float MIDNIGHT_OPACITY = 0.5f;
 
@@ -27,15 +29,17 @@ public class Night {
      * @param layer            - the wanted layer
      * @param windowDimensions - the screen window dim
      * @param cycleLength      - the time which we want the night object will be presented in the game.
+     * @param colorPalette     - the palette the shared renderable of the night is taken from (its
+     *                         opaqueness transition is held by its renderer, not by the renderable).
      * @return Game object - the Night game object.
      */
     public static GameObject create(
             GameObjectCollection gameObjects, int layer,
             Vector2 windowDimensions,
-            float cycleLength) {
+            float cycleLength, ColorPalette colorPalette) {
         GameObject night = new GameObject(Vector2.ZERO,
                 new Vector2(windowDimensions.x(), windowDimensions.y()),
-                new RectangleRenderable(ColorSupplier.approximateColor(Color.BLACK)));
+                colorPalette.renderableOf(Color.BLACK));
         night.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
         night.setTag(NIGHT_TAG);
         gameObjects.addGameObject(night, layer);
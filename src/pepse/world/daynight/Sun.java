@@ -16,6 +16,9 @@ import java.awt.*;
 public class Sun {
 
     // Constants
+    // the number of the transitions create attaches to the sun - a static estimate for the census, as
+    // danogl doesn't expose the components of an object
+    public static final int ESTIMATED_TRANSITIONS_COUNT = 1;
     private static final String SUN_TAG = "sun";
     private static final int SUN_REDUCTION_FACTOR = 10;
     private static final Float INIT_SUN_DEGREE = 0f;
@@ -14,6 +14,9 @@ import java.awt.*;
 public class SunHalo {
 
     // Constants
+    // the number of the components create attaches to the sun halo - a static estimate for the census, as
+    // danogl doesn't expose the components of an object
+    public static final int ESTIMATED_COMPONENTS_COUNT = 1;
     private static final String SUN_HALO_TAG = "sunHalo";
 
     /**
@@ -0,0 +1,106 @@
+package pepse.world.tiles;
+
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+
+/**
+ * This class is the renderable of a whole chunk - it draws the baked image of the chunk tiles in a single
+ * draw call. Until the image is baked it draws the GROUND and TRUNK tiles of the chunk by their color
+ * variants, merging vertical runs of the same tile and variant into a single rectangle.
+ * A chunk is never rotated or flipped, so the angle and the flips are ignored.
+ */
+public class ChunkRenderable implements Renderable {
+
+    // Constants
+    private static final int GROUND_ID = TileType.GROUND.ordinal();
+    private static final int TRUNK_ID = TileType.TRUNK.ordinal();
+
+    // Data members
+    private final ChunkTiles chunkTiles;
+    private final Color[][] palette;
+    private final ChunkTextureCache textureCache;
+
+
+    /**
+     * This is the Ctor of the class
+     *
+     * @param chunkTiles   - the tiles of the chunk.
+     * @param palette      - the colors of the tiles, by the tile type ordinal and then by the color variant.
+     * @param textureCache - the cache of the baked images of the chunks.
+     */
+    public ChunkRenderable(ChunkTiles chunkTiles, Color[][] palette, ChunkTextureCache textureCache) {
+        this.chunkTiles = chunkTiles;
+        this.palette = palette;
+        this.textureCache = textureCache;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method draws the tiles of the chunk over the given rectangle.
+     *
+     * @param g                       - the graphics to draw on.
+     * @param topLeftCorner           - the top left corner of the chunk on the screen.
+     * @param dimensions              - the dimensions of the chunk.
+     * @param degreesCounterClockwise - ignored.
+     * @param isFlippedHorizontally   - ignored.
+     * @param isFlippedVertically     - ignored.
+     * @param opaqueness              - ignored, the chunk is always opaque.
+     */
+    @Override
+    public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions, double degreesCounterClockwise,
+                       boolean isFlippedHorizontally, boolean isFlippedVertically, double opaqueness) {
+        BufferedImage texture = textureCache.textureOf(chunkTiles);
+        if (texture == null) {
+            drawTiles(g, topLeftCorner, dimensions);
+            return;
+        }
+        // a pixel of the image is a whole tile, so it is stretched without smoothing
+        Object interpolation = g.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        g.drawImage(texture, Math.round(topLeftCorner.x()), Math.round(topLeftCorner.y()),
+                Math.round(dimensions.x()), Math.round(dimensions.y()), null);
+        if (interpolation != null) g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+    }
+
+    /**
+     * This method draws the tiles of the chunk one vertical run of the same tile at a time.
+     *
+     * @param g             - the graphics to draw on.
+     * @param topLeftCorner - the top left corner of the chunk on the screen.
+     * @param dimensions    - the dimensions of the chunk.
+     */
+    private void drawTiles(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions) {
+        int columnsCount = chunkTiles.columnsCount();
+        int rowsCount = chunkTiles.rowsCount();
+        float tileWidth = dimensions.x() / columnsCount;
+        float tileHeight = dimensions.y() / rowsCount;
+        for (int column = 0; column < columnsCount; column++) {
+            int x = Math.round(topLeftCorner.x() + column * tileWidth);
+            int width = Math.round(topLeftCorner.x() + (column + 1) * tileWidth) - x;
+            int row = 0;
+            while (row < rowsCount) {
+                int tileId = chunkTiles.tileIdAt(column, row);
+                if (tileId != GROUND_ID && tileId != TRUNK_ID) {
+                    row++;
+                    continue;
+                }
+                int variant = chunkTiles.variantAt(column, row);
+                int runEnd = row + 1;
+                while (runEnd < rowsCount && chunkTiles.tileIdAt(column, runEnd) == tileId &&
+                        chunkTiles.variantAt(column, runEnd) == variant) {
+                    runEnd++;
+                }
+                int y = Math.round(topLeftCorner.y() + row * tileHeight);
+                g.setColor(palette[tileId][variant]);
+                g.fillRect(x, y, width, Math.round(topLeftCorner.y() + runEnd * tileHeight) - y);
+                row = runEnd;
+            }
+        }
+    }
+
+}
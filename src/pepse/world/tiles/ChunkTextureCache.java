@@ -0,0 +1,183 @@
+package pepse.world.tiles;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+
+/**
+ * This class bakes the static tiles of the chunks into images, one pixel per tile, and caches them.
+ * A chunk is baked on the executor once its tiles are complete, and its image is drawn stretched over the
+ * chunk in a single draw call. The images are kept in a least recently used order and evicted when their
+ * total size goes over the cap (an evicted chunk is baked again the next time it is drawn). The images of the
+ * unloaded chunks are dropped anyway, so a cap that fits all the loaded chunks (maxTexturesBytesFor) only
+ * bounds the memory of the cache, and a smaller cap trades rebaking for memory.
+ * All the methods must be called on the game thread, only the baking itself runs on the executor - the tiles
+ * of a chunk don't change after it was handed to the cache.
+ */
+public class ChunkTextureCache {
+
+    // Constants
+    private static final int BYTES_PER_PIXEL = 4;
+    private static final int AIR_PIXEL = 0;
+
+    // Data members
+    private final Executor executor;
+    private final long maxTexturesBytes;
+    private final Map<Integer, CompletableFuture<BufferedImage>> textures;
+    private Color[][] palette;
+    private long texturesBytes;
+    private int evictedTexturesCount;
+
+
+    /**
+     * This is the Ctor of the class
+     *
+     * @param executor         - the executor the baking runs on.
+     * @param maxTexturesBytes - the cap of the total size of the cached images.
+     */
+    public ChunkTextureCache(Executor executor, long maxTexturesBytes) {
+        this.executor = executor;
+        this.maxTexturesBytes = maxTexturesBytes;
+        // access ordered, so the iteration starts from the least recently used texture
+        this.textures = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method calc the size cap that fits the images of the given number of chunks.
+     *
+     * @param chunksCount  - the number of the chunks.
+     * @param columnsCount - the number of the tile columns of every chunk.
+     * @param rowsCount    - the number of the tile rows of every chunk.
+     * @return long - the size of the images of the chunks, in bytes.
+     */
+    public static long maxTexturesBytesFor(int chunksCount, int columnsCount, int rowsCount) {
+        return (long) chunksCount * columnsCount * rowsCount * BYTES_PER_PIXEL;
+    }
+
+    /**
+     * This method sets the colors the tiles are baked with.
+     *
+     * @param palette - the colors of the tiles, by the tile type ordinal and then by the color variant.
+     */
+    void setPalette(Color[][] palette) {
+        this.palette = palette;
+    }
+
+    /**
+     * This method starts baking the given chunk, if it is not baked (or being baked) already.
+     *
+     * @param chunkTiles - the complete tiles of the chunk.
+     */
+    public void bake(ChunkTiles chunkTiles) {
+        if (textures.containsKey(chunkTiles.chunkIndex())) return;
+        Color[][] bakePalette = palette;
+        textures.put(chunkTiles.chunkIndex(),
+                CompletableFuture.supplyAsync(() -> bakeTexture(chunkTiles, bakePalette), executor));
+        texturesBytes += textureBytes(chunkTiles);
+        evictOverCap(chunkTiles);
+    }
+
+    /**
+     * This method gives the baked image of the given chunk, and marks it as recently used.
+     * If the chunk is not baked (it was evicted) it starts baking it again.
+     *
+     * @param chunkTiles - the tiles of the chunk.
+     * @return BufferedImage - the baked image of the chunk, null if it is not ready yet.
+     */
+    public BufferedImage textureOf(ChunkTiles chunkTiles) {
+        CompletableFuture<BufferedImage> texture = textures.get(chunkTiles.chunkIndex());
+        if (texture == null) {
+            bake(chunkTiles);
+            return null;
+        }
+        return texture.getNow(null);
+    }
+
+    /**
+     * This method drops the image of the given chunk, called when the chunk is unloaded.
+     *
+     * @param chunkTiles - the tiles of the chunk.
+     */
+    public void remove(ChunkTiles chunkTiles) {
+        if (textures.remove(chunkTiles.chunkIndex()) != null) texturesBytes -= textureBytes(chunkTiles);
+    }
+
+    /**
+     * @return long - the total size of the cached images, in bytes.
+     */
+    public long texturesBytes() {
+        return texturesBytes;
+    }
+
+    /**
+     * @return int - the number of the cached images.
+     */
+    public int texturesCount() {
+        return textures.size();
+    }
+
+    /**
+     * @return int - the number of the images that were evicted by the size cap.
+     */
+    public int evictedTexturesCount() {
+        return evictedTexturesCount;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Private methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method evicts the least recently used images until the total size is under the cap, except the
+     * image of the given chunk.
+     *
+     * @param keptChunkTiles - the tiles of the chunk that was just baked.
+     */
+    private void evictOverCap(ChunkTiles keptChunkTiles) {
+        Iterator<Map.Entry<Integer, CompletableFuture<BufferedImage>>> iterator =
+                textures.entrySet().iterator();
+        while (texturesBytes > maxTexturesBytes && iterator.hasNext()) {
+            Map.Entry<Integer, CompletableFuture<BufferedImage>> entry = iterator.next();
+            if (entry.getKey() == keptChunkTiles.chunkIndex()) continue;
+            iterator.remove();
+            // all the chunks have the same tiles dimensions
+            texturesBytes -= textureBytes(keptChunkTiles);
+            evictedTexturesCount++;
+        }
+    }
+
+    /**
+     * This method bakes the GROUND and TRUNK tiles of the given chunk into an image, a pixel per tile.
+     *
+     * @param chunkTiles - the tiles of the chunk.
+     * @param palette    - the colors of the tiles.
+     * @return BufferedImage - the baked image.
+     */
+    private static BufferedImage bakeTexture(ChunkTiles chunkTiles, Color[][] palette) {
+        BufferedImage texture = new BufferedImage(chunkTiles.columnsCount(), chunkTiles.rowsCount(),
+                BufferedImage.TYPE_INT_ARGB);
+        for (int column = 0; column < chunkTiles.columnsCount(); column++) {
+            for (int row = 0; row < chunkTiles.rowsCount(); row++) {
+                int tileId = chunkTiles.tileIdAt(column, row);
+                Color[] variants = palette[tileId];
+                texture.setRGB(column, row,
+                        variants == null ? AIR_PIXEL : variants[chunkTiles.variantAt(column, row)].getRGB());
+            }
+        }
+        return texture;
+    }
+
+    /**
+     * @param chunkTiles - the tiles of a chunk.
+     * @return long - the size of the image of the chunk, in bytes.
+     */
+    private static long textureBytes(ChunkTiles chunkTiles) {
+        return maxTexturesBytesFor(1, chunkTiles.columnsCount(), chunkTiles.rowsCount());
+    }
+
+}
@@ -0,0 +1,149 @@
+package pepse.world.tiles;
+
+import java.util.Arrays;
+
+
+/**
+ * This class holds the tiles of a single chunk - a tile type and a color variant per cell, in two byte
+ * arrays indexed by (column * rows count + row), so a column is contiguous.
+ * The number of the tiles of every type is kept as the tiles are set, so it is read without a scan.
+ */
+public class ChunkTiles {
+
+    // Constants
+    private static final TileType[] TILE_TYPES = TileType.values();
+
+    // Data members
+    private final int chunkIndex;
+    private final int columnsCount;
+    private final int rowsCount;
+    private final byte[] tiles;
+    private final byte[] variants;
+    private final int[] tilesCounts;
+
+
+    /**
+     * This is the Ctor of the class, all the tiles are AIR.
+     *
+     * @param chunkIndex   - the index of the chunk.
+     * @param columnsCount - the number of the tile columns of the chunk.
+     * @param rowsCount    - the number of the tile rows of the chunk.
+     */
+    public ChunkTiles(int chunkIndex, int columnsCount, int rowsCount) {
+        this.chunkIndex = chunkIndex;
+        this.columnsCount = columnsCount;
+        this.rowsCount = rowsCount;
+        this.tiles = new byte[columnsCount * rowsCount];
+        this.variants = new byte[columnsCount * rowsCount];
+        this.tilesCounts = new int[TILE_TYPES.length];
+        tilesCounts[TileType.AIR.ordinal()] = tiles.length;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method sets the given tile, tiles out of the chunk rows are ignored.
+     *
+     * @param column   - the column of the tile in the chunk.
+     * @param row      - the row of the tile.
+     * @param tileType - the type of the tile.
+     * @param variant  - the color variant of the tile.
+     */
+    public void setTile(int column, int row, TileType tileType, int variant) {
+        if (row < 0 || row >= rowsCount) return;
+        int index = column * rowsCount + row;
+        tilesCounts[tiles[index]]--;
+        tilesCounts[tileType.ordinal()]++;
+        tiles[index] = (byte) tileType.ordinal();
+        variants[index] = (byte) variant;
+    }
+
+    /**
+     * This method sets a vertical run of tiles of the same type in a single copy (a column is contiguous),
+     * the part of the run out of the chunk rows is ignored.
+     *
+     * @param column         - the column of the tiles in the chunk.
+     * @param fromRow        - the row of the first tile of the run.
+     * @param tileType       - the type of the tiles.
+     * @param variants       - the color variants to copy, from the first tile of the run down.
+     * @param variantsOffset - the index in the variants array of the variant of the first tile.
+     * @param count          - the number of tiles in the run.
+     */
+    public void setColumnRun(int column, int fromRow, TileType tileType, byte[] variants, int variantsOffset,
+                             int count) {
+        int firstRow = Math.max(fromRow, 0);
+        int endRow = Math.min(fromRow + count, rowsCount);
+        if (firstRow >= endRow) return;
+        int index = column * rowsCount + firstRow;
+        for (int i = index; i < index + endRow - firstRow; i++) tilesCounts[tiles[i]]--;
+        tilesCounts[tileType.ordinal()] += endRow - firstRow;
+        Arrays.fill(tiles, index, index + endRow - firstRow, (byte) tileType.ordinal());
+        System.arraycopy(variants, variantsOffset + firstRow - fromRow, this.variants, index,
+                endRow - firstRow);
+    }
+
+    /**
+     * @param column - the column of the tile in the chunk.
+     * @param row    - the row of the tile.
+     * @return TileType - the type of the given tile (AIR out of the chunk rows).
+     */
+    public TileType tileAt(int column, int row) {
+        if (row < 0 || row >= rowsCount) return TileType.AIR;
+        return TILE_TYPES[tiles[column * rowsCount + row]];
+    }
+
+    /**
+     * @param column - the column of the tile in the chunk.
+     * @param row    - the row of the tile.
+     * @return int - the color variant of the given tile.
+     */
+    public int variantAt(int column, int row) {
+        return variants[column * rowsCount + row];
+    }
+
+    /**
+     * @param column - the column of the tile in the chunk.
+     * @param row    - the row of the tile.
+     * @return int - the ordinal of the type of the given tile (for tight loops).
+     */
+    int tileIdAt(int column, int row) {
+        return tiles[column * rowsCount + row];
+    }
+
+    /**
+     * @return int - the index of the chunk.
+     */
+    public int chunkIndex() {
+        return chunkIndex;
+    }
+
+    /**
+     * @return int - the number of the tile columns of the chunk.
+     */
+    public int columnsCount() {
+        return columnsCount;
+    }
+
+    /**
+     * @return int - the number of the tile rows of the chunk.
+     */
+    public int rowsCount() {
+        return rowsCount;
+    }
+
+    /**
+     * @param tileType - type of tiles.
+     * @return int - the number of the tiles of the given type in the chunk.
+     */
+    public int tilesCount(TileType tileType) {
+        return tilesCounts[tileType.ordinal()];
+    }
+
+    /**
+     * @return int - the number of bytes the tiles of the chunk take.
+     */
+    public int bytesCount() {
+        return tiles.length + variants.length;
+    }
+
+}
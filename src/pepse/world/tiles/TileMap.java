@@ -0,0 +1,195 @@
+package pepse.world.tiles;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+import pepse.util.ColorPalette;
+import pepse.world.Block;
+import pepse.world.chunks.ChunkObjectRegistry;
+import pepse.world.chunks.WorldChunkManager;
+
+import java.awt.*;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * This class is the compact representation of the static world - each loaded chunk is stored as arrays of
+ * tile types and color variants (ChunkTiles), and is drawn by a single game object with a ChunkRenderable,
+ * from an image baked off the game thread by the ChunkTextureCache.
+ * The rows of the tiles start at y = 0, each tile is a Block.SIZE square.
+ */
+public class TileMap {
+
+    // Constants
+    public static final int VARIANTS_COUNT = ColorPalette.VARIANTS_COUNT;
+    public static final String CHUNK_TAG = "chunk";
+
+    // Data members
+    private final ChunkObjectRegistry chunkObjectRegistry;
+    private final int layer;
+    private final int rowsCount;
+    private final Map<Integer, ChunkTiles> chunksTiles;
+    private final Color[][] palette;
+    private final ChunkTextureCache textureCache;
+    private final ColorPalette colorPalette;
+
+
+    /**
+     * This is the Ctor of the class
+     *
+     * @param chunkObjectRegistry - the registry that adds the chunks renderers to the game.
+     * @param layer               - the layer of the chunks renderers.
+     * @param rowsCount           - the number of the tile rows of every chunk.
+     * @param textureCache        - the cache of the baked images of the chunks.
+     * @param colorPalette        - the palette the tiles colors variants are taken from.
+     */
+    public TileMap(ChunkObjectRegistry chunkObjectRegistry, int layer, int rowsCount,
+                   ChunkTextureCache textureCache, ColorPalette colorPalette) {
+        this.chunkObjectRegistry = chunkObjectRegistry;
+        this.layer = layer;
+        this.rowsCount = rowsCount;
+        this.chunksTiles = new HashMap<>();
+        this.palette = new Color[TileType.values().length][];
+        this.textureCache = textureCache;
+        this.colorPalette = colorPalette;
+        textureCache.setPalette(palette);
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method sets the colors of the given tile type - the shared variants of the given base color in the
+     * color palette. Must be called before the tiles of this type are drawn.
+     *
+     * @param tileType  - the type of the tiles.
+     * @param baseColor - the base color of the tiles.
+     */
+    public void setBaseColor(TileType tileType, Color baseColor) {
+        palette[tileType.ordinal()] = colorPalette.variantsOf(baseColor);
+    }
+
+    /**
+     * This method creates the (all AIR) tiles of the given chunk, and adds the game object that draws them.
+     *
+     * @param chunkIndex - the index of the chunk.
+     * @return ChunkTiles - the tiles of the chunk.
+     */
+    public ChunkTiles createChunk(int chunkIndex) {
+        ChunkTiles chunkTiles =
+                new ChunkTiles(chunkIndex, WorldChunkManager.CHUNK_WIDTH_IN_BLOCKS, rowsCount);
+        chunksTiles.put(chunkIndex, chunkTiles);
+        float minX = WorldChunkManager.chunkMinX(chunkIndex);
+        GameObject chunkRenderer = new GameObject(new Vector2(minX, 0),
+                new Vector2(WorldChunkManager.CHUNK_WIDTH, rowsCount * Block.SIZE),
+                new ChunkRenderable(chunkTiles, palette, textureCache));
+        chunkRenderer.setTag(CHUNK_TAG);
+        chunkObjectRegistry.add(chunkRenderer, layer, minX);
+        return chunkTiles;
+    }
+
+    /**
+     * This method starts baking the image of the given chunk, called once all its tiles are set.
+     *
+     * @param chunkIndex - the index of the chunk.
+     */
+    public void bakeChunk(int chunkIndex) {
+        ChunkTiles chunkTiles = chunksTiles.get(chunkIndex);
+        if (chunkTiles != null) textureCache.bake(chunkTiles);
+    }
+
+    /**
+     * This method drops the tiles and the baked image of the given chunk, called when the chunk is unloaded
+     * (its renderer is removed with the other objects of the chunk).
+     *
+     * @param chunkIndex - the index of the chunk.
+     */
+    public void removeChunk(int chunkIndex) {
+        ChunkTiles chunkTiles = chunksTiles.remove(chunkIndex);
+        if (chunkTiles != null) textureCache.remove(chunkTiles);
+    }
+
+    /**
+     * @param chunkIndex - the index of the chunk.
+     * @return ChunkTiles - the tiles of the given chunk, null if it is not loaded.
+     */
+    public ChunkTiles chunkTiles(int chunkIndex) {
+        return chunksTiles.get(chunkIndex);
+    }
+
+    /**
+     * @param x - horizontal coord.
+     * @param y - vertical coord.
+     * @return TileType - the type of the tile in the given coordinates (AIR if its chunk is not loaded).
+     */
+    public TileType tileAt(float x, float y) {
+        ChunkTiles chunkTiles = chunksTiles.get(WorldChunkManager.chunkIndexAt(x));
+        if (chunkTiles == null) return TileType.AIR;
+        int column = Math.floorDiv((int) Math.floor(x), Block.SIZE) -
+                chunkTiles.chunkIndex() * WorldChunkManager.CHUNK_WIDTH_IN_BLOCKS;
+        return chunkTiles.tileAt(column, rowOf(y));
+    }
+
+    /**
+     * @param column - the world column of the tile (x coordinate divided by Block.SIZE).
+     * @param row    - the row of the tile.
+     * @return int - the color variant of the tile in the given place, picked by the color palette.
+     */
+    public int variantAt(int column, int row) {
+        return colorPalette.variantAt(column, row);
+    }
+
+    /**
+     * This method bakes the image of the given chunk again, called after its tiles were changed.
+     *
+     * @param chunkIndex - the index of the chunk.
+     */
+    public void rebakeChunk(int chunkIndex) {
+        ChunkTiles chunkTiles = chunksTiles.get(chunkIndex);
+        if (chunkTiles == null) return;
+        textureCache.remove(chunkTiles);
+        textureCache.bake(chunkTiles);
+    }
+
+    /**
+     * @param y - vertical coord.
+     * @return int - the tile row that contains the given coord.
+     */
+    public static int rowOf(float y) {
+        return Math.floorDiv((int) Math.floor(y), Block.SIZE);
+    }
+
+    /**
+     * @return int - the number of the tile rows of every chunk.
+     */
+    public int rowsCount() {
+        return rowsCount;
+    }
+
+    /**
+     * @return int - the number of the loaded chunks.
+     */
+    public int chunksCount() {
+        return chunksTiles.size();
+    }
+
+    /**
+     * @param tileType - type of tiles.
+     * @return int - the number of the tiles of the given type in all the loaded chunks (a count per chunk is
+     * summed, the tiles are not scanned).
+     */
+    public int tilesCount(TileType tileType) {
+        int tilesCount = 0;
+        for (ChunkTiles chunkTiles : chunksTiles.values()) tilesCount += chunkTiles.tilesCount(tileType);
+        return tilesCount;
+    }
+
+    /**
+     * @return long - the number of bytes the tiles of all the loaded chunks take.
+     */
+    public long bytesCount() {
+        long bytesCount = 0;
+        for (ChunkTiles chunkTiles : chunksTiles.values()) bytesCount += chunkTiles.bytesCount();
+        return bytesCount;
+    }
+
+}
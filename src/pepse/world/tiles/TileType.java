@@ -0,0 +1,7 @@
+package pepse.world.tiles;
+
+/**
+ * This enum class contains the types of the tiles of the world, a tile is stored by the ordinal of its type.
+ * There is no leaf tile - the leaves are animated, so each one of them is a Leaf object.
+ */
+public enum TileType {AIR, GROUND, TRUNK}
@@ -0,0 +1,7 @@
+package pepse.world.trees;
+
+/**
+ * This enum class contains the animation levels of detail of the leaves, by their distance from the camera:
+ * NEAR leaves are animated every frame, MID leaves every few frames and FAR leaves are frozen.
+ */
+public enum LeafDetailLevel {NEAR, MID, FAR}
@@ -0,0 +1,101 @@
+package pepse.world.trees;
+
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.util.ArrayDeque;
+
+
+/**
+ * This class is a pool of Leaf objects, so the leaves of the unloaded chunks are reused by the new loaded
+ * chunks instead of allocating new objects (and their components) on every world expansion. The leaves are
+ * the only pooled objects - the ground and the trunks are tiles of the TileMap.
+ * Leaves released to the pool are handed out again only on a later load, after the game objects collection
+ * finished removing them.
+ */
+public class LeafPool {
+
+    // Constants
+    public static final int DEFAULT_MAX_POOLED_LEAVES = 20000;
+
+    // Data members
+    private final ArrayDeque<Leaf> leaves;
+    private final int maxPooledLeaves;
+    private int reusedLeavesCount;
+    private int createdLeavesCount;
+
+
+    /**
+     * This is the Ctor of the class
+     *
+     * @param maxPooledLeaves - the max number of leaves that kept, released leaves beyond this bound are left
+     *                        to the GC.
+     */
+    public LeafPool(int maxPooledLeaves) {
+        this.leaves = new ArrayDeque<>();
+        this.maxPooledLeaves = maxPooledLeaves;
+    }
+
+    /**
+     * This is the default Ctor of the class, keeps up to DEFAULT_MAX_POOLED_LEAVES leaves.
+     */
+    public LeafPool() {
+        this(DEFAULT_MAX_POOLED_LEAVES);
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method borrows a leaf from the pool (or creates a new one if the pool is empty).
+     *
+     * @param topLeftCorner - Vector2, the original (on tree) top left corner of the leaf
+     * @param renderable    - renderable of the leaf
+     * @param tag           - the tag of the leaf
+     * @return Leaf - a leaf on its tree, without a scheduled life cycle.
+     */
+    public Leaf obtainLeaf(Vector2 topLeftCorner, Renderable renderable, String tag) {
+        Leaf leaf = leaves.poll();
+        if (leaf == null) {
+            leaf = new Leaf(topLeftCorner, renderable);
+            createdLeavesCount++;
+        } else {
+            leaf.reset(topLeftCorner, renderable);
+            reusedLeavesCount++;
+        }
+        leaf.setTag(tag);
+        return leaf;
+    }
+
+    /**
+     * This method returns the given leaf to the pool. The leaf must be already removed from the game objects
+     * collection.
+     *
+     * @param leaf - the leaf to return.
+     */
+    public void release(Leaf leaf) {
+        leaf.cancelLifeCycle();
+        if (leaves.size() < maxPooledLeaves) leaves.push(leaf);
+    }
+
+    /**
+     * @return int - the number of the leaves that are currently waiting in the pool.
+     */
+    public int pooledLeavesCount() {
+        return leaves.size();
+    }
+
+    /**
+     * @return int - the number of the leaves that were handed out from the pool instead of allocated.
+     */
+    public int reusedLeavesCount() {
+        return reusedLeavesCount;
+    }
+
+    /**
+     * @return int - the number of the leaves that were allocated because the pool was empty.
+     */
+    public int createdLeavesCount() {
+        return createdLeavesCount;
+    }
+
+}
@@ -0,0 +1,403 @@
+package pepse.world.trees;
+
+import danogl.util.Vector2;
+import pepse.util.HashRandom;
+import pepse.world.Block;
+import pepse.world.GroundHeightFunction;
+
+import java.util.Arrays;
+
+
+/**
+ * This class runs the life cycle of all the leaves in the game in a single loop per frame, instead of
+ * attaching transitions and scheduled tasks to every leaf.
+ * The state of the leaves (animation phase, angle, width, velocity, opaqueness and LeafPositionStatus) is
+ * held in primitive arrays indexed by the slot of the leaf (structure of arrays). A removed leaf is
+ * replaced by the last leaf, so the arrays stay dense.
+ * The behavior is the one the leaves had with their components: the leaf sways and shrinks back and forth
+ * all the time, every life cycle period it may fall (moving left and right while fading out), and a leaf
+ * that landed grows back on its tree on the next period.
+ * The animation is applied by level of detail - leaves near the camera are animated every frame, leaves a
+ * bit further every few frames and the far leaves are frozen. The life cycle clock of all the leaves keeps
+ * running, and the animation state is a function of it, so a leaf that gets back into view is shown in the
+ * right state.
+ * A falling leaf lands when its bottom reaches the ground height at its x coordinate, so the leaves do not
+ * need to collide with the ground.
+ */
+public class LeafSystem {
+
+    // Constants
+    private static final float LEAF_FADE_OUT_TIME = 9;
+    private static final float LEAF_FALL_DOWN_VELOCITY = 50;
+    private static final int TIME_TILL_LEAF_FLOW_START = 14;
+    private static final float MAX_OPAQUENESS_ARG = 1f;
+    private static final float INIT_LEAF_ANGLE = 2f;
+    private static final float FINAL_LEAF_ANGLE = -2f;
+    private static final float LEAF_ANGLE_TRANSITION_TIME = 1f;
+    private static final float LEAF_SHRINKAGE_TRANSITION_TIME = 1f;
+    private static final float LEAF_WIDTH_SUBTRACTION = 1 / 5f * Block.SIZE;
+    private static final float PROB_FALL_AND_FADE_OUT = 1 / 8f;
+    private static final float INIT_LEAF_HORIZONTAL_VELOCITY = -100f;
+    private static final float FINAL_LEAF_HORIZONTAL_VELOCITY = 100f;
+    private static final float LEAF_HORIZONTAL_VELOCITY_TRANSITION_TIME = 1f;
+    private static final int INITIAL_CAPACITY = 1024;
+    // margins around the camera rectangle, in x, of the NEAR and the MID levels of detail
+    private static final float NEAR_MARGIN = Tree.TREE_TOP_DIMENSION;
+    private static final float MID_MARGIN = 4 * Tree.TREE_TOP_DIMENSION;
+    private static final int MID_FRAMES_PER_ANIMATION = 4;
+    private static final LeafDetailLevel[] DETAIL_LEVELS = LeafDetailLevel.values();
+    private static final byte ON_TREE = (byte) LeafPositionStatus.ON_TREE.ordinal();
+    private static final byte FALLING = (byte) LeafPositionStatus.FALLING.ordinal();
+    private static final byte ON_GROUND = (byte) LeafPositionStatus.ON_GROUND.ordinal();
+    // the width is applied in whole pixels, so the dimensions vectors are shared instead of allocated
+    private static final Vector2[] LEAF_DIMENSIONS_BY_SHRINKAGE = createLeafDimensions();
+
+    // Data members
+    private final int seed;
+    private final GroundHeightFunction heightAtCallback;
+    private Leaf[] leaves;
+    private Vector2[] originalTopLeftCorners;
+    private float[] phases;
+    private float[] angles;
+    private float[] widths;
+    private float[] velocitiesX;
+    private float[] opacities;
+    private float[] fallTimes;
+    private float[] lifeCycleTimers;
+    private float[] lifeCyclePeriods;
+    private byte[] statuses;
+    private byte[] appliedShrinkages;
+    private boolean[] stopsPending;
+    private int leavesCount;
+    private final int[] leavesCountsByDetailLevel;
+    private int framesCount;
+
+
+    /**
+     * This is the Ctor of the class
+     *
+     * @param heightAtCallback - callback that will calc the ground height in given coordinate.
+     * @param seed             - the seed for the randomness of the leaves life cycle.
+     */
+    public LeafSystem(GroundHeightFunction heightAtCallback, int seed) {
+        this.seed = seed;
+        this.heightAtCallback = heightAtCallback;
+        this.leaves = new Leaf[INITIAL_CAPACITY];
+        this.originalTopLeftCorners = new Vector2[INITIAL_CAPACITY];
+        this.phases = new float[INITIAL_CAPACITY];
+        this.angles = new float[INITIAL_CAPACITY];
+        this.widths = new float[INITIAL_CAPACITY];
+        this.velocitiesX = new float[INITIAL_CAPACITY];
+        this.opacities = new float[INITIAL_CAPACITY];
+        this.fallTimes = new float[INITIAL_CAPACITY];
+        this.lifeCycleTimers = new float[INITIAL_CAPACITY];
+        this.lifeCyclePeriods = new float[INITIAL_CAPACITY];
+        this.statuses = new byte[INITIAL_CAPACITY];
+        this.appliedShrinkages = new byte[INITIAL_CAPACITY];
+        this.stopsPending = new boolean[INITIAL_CAPACITY];
+        this.leavesCountsByDetailLevel = new int[DETAIL_LEVELS.length];
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method starts the life cycle of the given leaf, the leaf must be on its tree.
+     *
+     * @param leaf - the leaf to add.
+     */
+    public void addLeaf(Leaf leaf) {
+        if (leavesCount == leaves.length) grow();
+        int slot = leavesCount++;
+        leaves[slot] = leaf;
+        Vector2 originalTopLeftCorner = leaf.getTopLeftCorner();
+        originalTopLeftCorners[slot] = originalTopLeftCorner;
+        phases[slot] = 0;
+        angles[slot] = INIT_LEAF_ANGLE;
+        widths[slot] = Block.SIZE;
+        velocitiesX[slot] = 0;
+        opacities[slot] = MAX_OPAQUENESS_ARG;
+        fallTimes[slot] = 0;
+        // the period of a leaf is drawn by its place, so a reloaded tree gets the same periods
+        lifeCyclePeriods[slot] = HashRandom.floatInRange(seed, (int) originalTopLeftCorner.x(),
+                (int) originalTopLeftCorner.y(), HashRandom.Purpose.LEAF_LIFE_CYCLE_PERIOD, LEAF_FADE_OUT_TIME,
+                TIME_TILL_LEAF_FLOW_START) + 1;
+        lifeCycleTimers[slot] = lifeCyclePeriods[slot];
+        statuses[slot] = ON_TREE;
+        appliedShrinkages[slot] = 0;
+        stopsPending[slot] = false;
+        leaf.attachToLeafSystem(this, slot);
+    }
+
+    /**
+     * This method starts the life cycle of the first leaves of the given array (the arrays grow at most
+     * once), the leaves must be on their tree.
+     *
+     * @param leaves - the leaves to add.
+     * @param count  - the number of the leaves to add from the start of the array.
+     */
+    public void addLeaves(Leaf[] leaves, int count) {
+        while (leavesCount + count > this.leaves.length) grow();
+        for (int i = 0; i < count; i++) addLeaf(leaves[i]);
+    }
+
+    /**
+     * This method stops the life cycle of the given leaf (the last leaf takes its slot).
+     *
+     * @param leaf - the leaf to remove.
+     */
+    public void removeLeaf(Leaf leaf) {
+        int slot = leaf.leafSystemSlot();
+        int lastSlot = --leavesCount;
+        if (slot != lastSlot) {
+            leaves[slot] = leaves[lastSlot];
+            originalTopLeftCorners[slot] = originalTopLeftCorners[lastSlot];
+            phases[slot] = phases[lastSlot];
+            angles[slot] = angles[lastSlot];
+            widths[slot] = widths[lastSlot];
+            velocitiesX[slot] = velocitiesX[lastSlot];
+            opacities[slot] = opacities[lastSlot];
+            fallTimes[slot] = fallTimes[lastSlot];
+            lifeCycleTimers[slot] = lifeCycleTimers[lastSlot];
+            lifeCyclePeriods[slot] = lifeCyclePeriods[lastSlot];
+            statuses[slot] = statuses[lastSlot];
+            appliedShrinkages[slot] = appliedShrinkages[lastSlot];
+            stopsPending[slot] = stopsPending[lastSlot];
+            leaves[slot].attachToLeafSystem(this, slot);
+        }
+        leaves[lastSlot] = null;
+        originalTopLeftCorners[lastSlot] = null;
+        leaf.attachToLeafSystem(null, -1);
+    }
+
+    /**
+     * This method advances the life cycle of all the leaves by the given time, and applies their new
+     * state to the leaves objects by their level of detail.
+     *
+     * @param deltaTime  - the time passed since the last update.
+     * @param cameraMinX - the left edge of the camera rectangle.
+     * @param cameraMaxX - the right edge of the camera rectangle.
+     */
+    public void update(float deltaTime, float cameraMinX, float cameraMaxX) {
+        Arrays.fill(leavesCountsByDetailLevel, 0);
+        framesCount++;
+        for (int slot = 0; slot < leavesCount; slot++) {
+            phases[slot] += deltaTime;
+            lifeCycleTimers[slot] -= deltaTime;
+            if (lifeCycleTimers[slot] <= 0) {
+                lifeCycleTimers[slot] += lifeCyclePeriods[slot];
+                runLifeCycleTick(slot);
+            }
+            if (statuses[slot] != ON_TREE) fallTimes[slot] += deltaTime;
+            if (statuses[slot] == FALLING) landIfOnGround(slot);
+            applyMotion(slot);
+            LeafDetailLevel detailLevel = detailLevelOf(slot, cameraMinX, cameraMaxX);
+            leavesCountsByDetailLevel[detailLevel.ordinal()]++;
+            if (detailLevel == LeafDetailLevel.NEAR || (detailLevel == LeafDetailLevel.MID &&
+                    (slot + framesCount) % MID_FRAMES_PER_ANIMATION == 0)) {
+                applyAnimation(slot);
+            }
+        }
+    }
+
+    /**
+     * This method makes the leaf in the given slot fall down and fade out.
+     *
+     * @param slot - the slot of the leaf.
+     */
+    void fallAndFadeOut(int slot) {
+        statuses[slot] = FALLING;
+        fallTimes[slot] = 0;
+        leaves[slot].transform().setVelocityY(LEAF_FALL_DOWN_VELOCITY);
+    }
+
+    /**
+     * @param slot - the slot of the leaf.
+     * @return LeafPositionStatus - the position status of the leaf in the given slot.
+     */
+    LeafPositionStatus positionStatus(int slot) {
+        return LeafPositionStatus.values()[statuses[slot]];
+    }
+
+    /**
+     * @return int - the number of the leaves in the system.
+     */
+    public int leavesCount() {
+        return leavesCount;
+    }
+
+    /**
+     * @param detailLevel - level of detail.
+     * @return int - the number of the leaves that were in the given level of detail on the last update.
+     */
+    public int leavesCount(LeafDetailLevel detailLevel) {
+        return leavesCountsByDetailLevel[detailLevel.ordinal()];
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Private methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method runs a single life cycle tick of the leaf in the given slot - a leaf on the ground grows
+     * back on its tree, and a leaf on its tree may fall.
+     *
+     * @param slot - the slot of the leaf.
+     */
+    private void runLifeCycleTick(int slot) {
+        if (statuses[slot] == ON_GROUND) {
+            statuses[slot] = ON_TREE;
+            fallTimes[slot] = 0;
+            opacities[slot] = MAX_OPAQUENESS_ARG;
+            leaves[slot].setTopLeftCorner(originalTopLeftCorners[slot]);
+            leaves[slot].renderer().setOpaqueness(MAX_OPAQUENESS_ARG);
+        } else if (statuses[slot] == ON_TREE && isFallTick(slot)) {
+            fallAndFadeOut(slot);
+        }
+    }
+
+    /**
+     * This method draws whether the leaf in the given slot falls on the current life cycle tick, by the
+     * place of the leaf and the current frame.
+     *
+     * @param slot - the slot of the leaf.
+     * @return boolean - true if the leaf falls, false else.
+     */
+    private boolean isFallTick(int slot) {
+        Vector2 originalTopLeftCorner = originalTopLeftCorners[slot];
+        long leafSeed = HashRandom.hash(seed, (int) originalTopLeftCorner.x(), (int) originalTopLeftCorner.y(),
+                HashRandom.Purpose.LEAF_FALL);
+        return HashRandom.boolAccordThreshold(leafSeed, framesCount, 0, HashRandom.Purpose.LEAF_FALL,
+                PROB_FALL_AND_FADE_OUT);
+    }
+
+    /**
+     * This method lands the falling leaf in the given slot if its bottom reached the ground height at its
+     * center, placing it right on the ground.
+     *
+     * @param slot - the slot of the leaf.
+     */
+    private void landIfOnGround(int slot) {
+        Leaf leaf = leaves[slot];
+        Vector2 topLeftCorner = leaf.getTopLeftCorner();
+        float groundHeight = heightAtCallback.groundHeightAt(leaf.getCenter().x());
+        if (topLeftCorner.y() + Block.SIZE < groundHeight) return;
+        statuses[slot] = ON_GROUND;
+        velocitiesX[slot] = 0;
+        stopsPending[slot] = true;
+        leaf.setTopLeftCorner(new Vector2(topLeftCorner.x(), groundHeight - Block.SIZE));
+    }
+
+    /**
+     * This method finds the level of detail of the leaf in the given slot, by the distance of its tree
+     * location from the camera rectangle.
+     *
+     * @param slot       - the slot of the leaf.
+     * @param cameraMinX - the left edge of the camera rectangle.
+     * @param cameraMaxX - the right edge of the camera rectangle.
+     * @return LeafDetailLevel - the level of detail of the leaf.
+     */
+    private LeafDetailLevel detailLevelOf(int slot, float cameraMinX, float cameraMaxX) {
+        float x = originalTopLeftCorners[slot].x();
+        float distance = Math.max(cameraMinX - (x + Block.SIZE), x - cameraMaxX);
+        if (distance <= NEAR_MARGIN) return LeafDetailLevel.NEAR;
+        if (distance <= MID_MARGIN) return LeafDetailLevel.MID;
+        return LeafDetailLevel.FAR;
+    }
+
+    /**
+     * This method applies the velocity of the leaf in the given slot to the leaf object. The motion is
+     * applied in every level of detail, so the leaf is in the right place when it gets back into view.
+     *
+     * @param slot - the slot of the leaf.
+     */
+    private void applyMotion(int slot) {
+        if (stopsPending[slot]) {
+            leaves[slot].setVelocity(Vector2.ZERO);
+            stopsPending[slot] = false;
+        } else if (statuses[slot] == FALLING) {
+            velocitiesX[slot] = INIT_LEAF_HORIZONTAL_VELOCITY +
+                    (FINAL_LEAF_HORIZONTAL_VELOCITY - INIT_LEAF_HORIZONTAL_VELOCITY) *
+                            cubic(backAndForth(fallTimes[slot], LEAF_HORIZONTAL_VELOCITY_TRANSITION_TIME));
+            leaves[slot].transform().setVelocityX(velocitiesX[slot]);
+        }
+    }
+
+    /**
+     * This method computes the animation state (angle, width and opaqueness) of the leaf in the given slot
+     * from its life cycle clock, and applies it to the leaf object.
+     *
+     * @param slot - the slot of the leaf.
+     */
+    private void applyAnimation(int slot) {
+        Leaf leaf = leaves[slot];
+        angles[slot] = INIT_LEAF_ANGLE + (FINAL_LEAF_ANGLE - INIT_LEAF_ANGLE) *
+                cubic(backAndForth(phases[slot], LEAF_ANGLE_TRANSITION_TIME));
+        widths[slot] = Block.SIZE - LEAF_WIDTH_SUBTRACTION *
+                cubic(backAndForth(phases[slot], LEAF_SHRINKAGE_TRANSITION_TIME));
+        leaf.renderer().setRenderableAngle(angles[slot]);
+        byte shrinkage = (byte) Math.round(Block.SIZE - widths[slot]);
+        if (shrinkage != appliedShrinkages[slot]) {
+            leaf.setDimensions(LEAF_DIMENSIONS_BY_SHRINKAGE[shrinkage]);
+            appliedShrinkages[slot] = shrinkage;
+        }
+        if (statuses[slot] != ON_TREE) {
+            opacities[slot] = MAX_OPAQUENESS_ARG * Math.max(1 - fallTimes[slot] / LEAF_FADE_OUT_TIME, 0);
+            leaf.renderer().setOpaqueness(opacities[slot]);
+        }
+    }
+
+    /**
+     * This method calc the progress of a back and forth transition.
+     *
+     * @param time           - the time since the transition started.
+     * @param transitionTime - the time of a single way of the transition.
+     * @return float - the progress, goes from 0 to 1 and back to 0 every two transition times.
+     */
+    private static float backAndForth(float time, float transitionTime) {
+        float progress = (time / transitionTime) % 2;
+        return progress > 1 ? 2 - progress : progress;
+    }
+
+    /**
+     * This method is the cubic interpolation of a progress (same as the cubic interpolator of the
+     * transitions).
+     *
+     * @param progress - linear progress in [0, 1].
+     * @return float - the cubic progress in [0, 1].
+     */
+    private static float cubic(float progress) {
+        return progress * progress * (3 - 2 * progress);
+    }
+
+    /**
+     * This method grows the arrays of the system to twice their size.
+     */
+    private void grow() {
+        int capacity = leaves.length * 2;
+        leaves = Arrays.copyOf(leaves, capacity);
+        originalTopLeftCorners = Arrays.copyOf(originalTopLeftCorners, capacity);
+        phases = Arrays.copyOf(phases, capacity);
+        angles = Arrays.copyOf(angles, capacity);
+        widths = Arrays.copyOf(widths, capacity);
+        velocitiesX = Arrays.copyOf(velocitiesX, capacity);
+        opacities = Arrays.copyOf(opacities, capacity);
+        fallTimes = Arrays.copyOf(fallTimes, capacity);
+        lifeCycleTimers = Arrays.copyOf(lifeCycleTimers, capacity);
+        lifeCyclePeriods = Arrays.copyOf(lifeCyclePeriods, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        appliedShrinkages = Arrays.copyOf(appliedShrinkages, capacity);
+        stopsPending = Arrays.copyOf(stopsPending, capacity);
+    }
+
+    /**
+     * This method creates the leaf dimensions for every whole pixels shrinkage of its width.
+     *
+     * @return Vector2 array - the dimensions, by the shrinkage.
+     */
+    private static Vector2[] createLeafDimensions() {
+        Vector2[] dimensions = new Vector2[(int) Math.ceil(LEAF_WIDTH_SUBTRACTION) + 1];
+        for (int shrinkage = 0; shrinkage < dimensions.length; shrinkage++) {
+            dimensions[shrinkage] = new Vector2(Block.SIZE - shrinkage, Block.SIZE);
+        }
+        return dimensions;
+    }
+
+}
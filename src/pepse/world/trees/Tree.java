@@ -1,87 +1,99 @@
 package pepse.world.trees;
 
-import danogl.collisions.GameObjectCollection;
 import danogl.util.Vector2;
+import pepse.util.ColorPalette;
 import pepse.world.Block;
+import pepse.world.chunks.ChunkData;
+import pepse.world.chunks.ChunkObjectRegistry;
+import pepse.world.tiles.TileMap;
 
-import java.util.Objects;
-import java.util.Random;
-import java.util.function.Function;
-
-import static pepse.util.BlockUtils.*;
 
 
 /**
  * This class is represent the Trees creates in the game.
+ * The places of the trees are decided per chunk by a TreePlacement (blue noise, at least the tree top
+ * dimension plus the distance between trees apart).
  */
 public class Tree {
 
     // Constants
     public static final float TREE_TOP_DIMENSION = 5 * Block.SIZE;
     private static final float DIST_BETWEEN_TREES = 2 * Block.SIZE;
-    private static final int TREE_POSITION_PROB = 4;
     private static final float HALF_FACTOR = 1 / 2f;
-    private static final int MIN_DIS = 1;
-    private static final int MAX_DIS = 6;
+    private static final int DIST_TO_NEXT_TREE_IN_BLOCKS =
+            (int) ((TREE_TOP_DIMENSION + DIST_BETWEEN_TREES) / Block.SIZE);
+    // about one tree per 5 * DIST_TO_NEXT_TREE, like the fixed stride with 1/5 probability had
+    private static final float TREE_CANDIDATE_PROB = 1 / 30f;
 
     // Data members
-    private final Vector2 windowDimensions;
     private final TreeGenerator treeGenerator;
-    private final int seed;
+    private final TreePlacement treePlacement;
 
 
     /**
      * This is the Ctor of the class.
      *
-     * @param windowDimensions - vector2, the dim of the screen
-     * @param gameObjects      - the game objects collection
-     * @param heightAtCallback - callback that will calc the ground height in given coordinate.
-     * @param layer            - layer of the tree object
-     * @param seed             - seed for the randomness
+     * @param windowDimensions    - vector2, the dim of the screen
+     * @param chunkObjectRegistry - the registry that adds the trees organs to the game by their chunk.
+     * @param leafPool            - the pool the leaves are borrowed from.
+     * @param leafSystem          - the system that runs the life cycle of the leaves.
+     * @param tileMap             - the tile map the trunks tiles are stored in.
+     * @param colorPalette        - the palette of the shared leaves renderables.
+     * @param seed                - seed for the randomness
      */
-    public Tree(Vector2 windowDimensions, GameObjectCollection gameObjects,
-                Function<Float, Float> heightAtCallback, int layer, int seed) {
-        this.windowDimensions = windowDimensions;
-        this.treeGenerator = new TreeGenerator(windowDimensions, heightAtCallback, gameObjects, layer);
-        this.seed = seed;
+    public Tree(Vector2 windowDimensions, ChunkObjectRegistry chunkObjectRegistry, LeafPool leafPool,
+                LeafSystem leafSystem, TileMap tileMap, ColorPalette colorPalette, int seed) {
+        this.treeGenerator = new TreeGenerator(windowDimensions, chunkObjectRegistry, leafPool, leafSystem,
+                tileMap, colorPalette, seed);
+        this.treePlacement = new TreePlacement(seed, DIST_TO_NEXT_TREE_IN_BLOCKS, TREE_CANDIDATE_PROB,
+                (int) (windowDimensions.x() * HALF_FACTOR), TreePlacement.DEFAULT_MAX_CACHED_CHUNKS);
     }
 
     // ~~~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~
 
     /**
-     * This method check by randomness if to locate a tree in a given coordinate
+     * This method check if to locate a tree in a given coordinate
      *
      * @param xCoord - int number - the coord to check for
      * @return bool value - true if we will locate the tree in the given index, false else.
      */
     public boolean isPlaceTree(int xCoord) {
-        if (xCoord != windowDimensions.x() * HALF_FACTOR) {
-            return new Random(Objects.hash(xCoord, seed)).nextInt((MAX_DIS - MIN_DIS)) + MIN_DIS == TREE_POSITION_PROB;
-        }
-        return false;
+        return xCoord % Block.SIZE == 0 && treePlacement.isTreeAt(xCoord);
+    }
+
+    /**
+     * @param minX - the min x coordinate of the range.
+     * @param maxX - the max x coordinate of the range.
+     * @return int array - the x coordinates of the trees in the range, from left to right.
+     */
+    public int[] treesInRange(int minX, int maxX) {
+        return treePlacement.treesInRange(minX, maxX);
     }
 
     /**
-     * This method create Trees of the game in the given range. creates trunks and tree top for each tree.
+     * This method computes the data of the trees of the given chunk (data phase of the chunk generation),
+     * without creating any game object. The ground heights of the chunk must be already in the data.
      *
-     * @param minX - coord to start from.
-     * @param maxX - coord to end.
+     * @param chunkData - the data of the chunk to fill.
      */
-    public void createInRange(int minX, int maxX) {
-        if (isNotBlockSizeMultiple(minX)) {
-            // change minX values to match screen partition
-            minX = roundUpCoordToBlockSize(minX);
+    public void generateChunkData(ChunkData chunkData) {
+        float[] groundHeights = chunkData.groundHeights();
+        for (long bits = treePlacement.chunkBitset(chunkData.chunkIndex()); bits != 0; bits &= bits - 1) {
+            int column = Long.numberOfTrailingZeros(bits);
+            chunkData.addTree(treeGenerator.generateTreeData(chunkData.minX() + column * Block.SIZE,
+                    groundHeights[column]));
         }
-        if (isNotBlockSizeMultiple(maxX)) {
-            maxX = roundDownCoordToBlockSize(maxX);
-        }
-        float distToNextTree = TREE_TOP_DIMENSION + DIST_BETWEEN_TREES;
-        for (int xCoord = minX; xCoord <= maxX; xCoord += distToNextTree) {
-            if (isPlaceTree(xCoord)) {
-                // create tree organs
-                Vector2 trunkTopLeft = treeGenerator.createTrunk(xCoord);
-                treeGenerator.createTreeTop(trunkTopLeft);
-            }
+    }
+
+    /**
+     * This method creates the trees of the given chunk from its data (commit phase of the chunk generation).
+     *
+     * @param chunkData - the data of the chunk.
+     */
+    public void commitChunk(ChunkData chunkData) {
+        for (TreeData treeData : chunkData.trees()) {
+            Vector2 trunkTopLeft = treeGenerator.createTrunk(treeData);
+            treeGenerator.createTreeTop(trunkTopLeft, treeData);
         }
     }
 
@@ -0,0 +1,63 @@
+package pepse.world.trees;
+
+/**
+ * This class holds the pure data of a single tree - everything that is needed in order to create its
+ * objects (trunk height and the template it is stamped from), without any game object.
+ * It is computed by TreeGenerator.generateTreeData (may run on a worker thread) and committed to the game
+ * on the game thread.
+ */
+public class TreeData {
+
+    // Data members
+    private final int xCoord;
+    private final float groundHeight;
+    private final float trunkHeight;
+    private final TreeTemplate template;
+
+
+    /**
+     * This is the Ctor of the class
+     *
+     * @param xCoord        - the x coordinate of the trunk.
+     * @param groundHeight  - the ground height under the trunk.
+     * @param trunkHeight   - the height of the trunk (block size multiple).
+     * @param template      - the template the tree is stamped from (leaves and trunk tiles variants).
+     */
+    public TreeData(int xCoord, float groundHeight, float trunkHeight, TreeTemplate template) {
+        this.xCoord = xCoord;
+        this.groundHeight = groundHeight;
+        this.trunkHeight = trunkHeight;
+        this.template = template;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * @return int - the x coordinate of the trunk.
+     */
+    public int xCoord() {
+        return xCoord;
+    }
+
+    /**
+     * @return float - the ground height under the trunk.
+     */
+    public float groundHeight() {
+        return groundHeight;
+    }
+
+    /**
+     * @return float - the height of the trunk.
+     */
+    public float trunkHeight() {
+        return trunkHeight;
+    }
+
+    /**
+     * @return TreeTemplate - the template the tree is stamped from.
+     */
+    public TreeTemplate template() {
+        return template;
+    }
+
+}
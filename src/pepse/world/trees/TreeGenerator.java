@@ -1,125 +1,159 @@
-package pepse.world.trees;
-
-import danogl.GameObject;
-import danogl.collisions.GameObjectCollection;
-import danogl.collisions.Layer;
-import danogl.gui.rendering.RectangleRenderable;
-import danogl.gui.rendering.Renderable;
-import danogl.util.Vector2;
-import pepse.util.BlockUtils;
-import pepse.util.ColorSupplier;
-import pepse.util.RandomUtils;
-import pepse.world.Block;
-
-import java.awt.*;
-import java.util.HashMap;
-import java.util.function.Function;
-
-
-/**
- * This class is responsible for generate a Tree in the game.
- */
-public class TreeGenerator {
-
-    // Constants
-    public static final String TRUNK_TAG = "trunk";
-    public static final String LEAF_TAG = "leaf";
-    private static final Color TRUNK_COLOR = new Color(100, 50, 20);
-    private static final Color LEAF_COLOR = new Color(50, 200, 30);
-    private static final float TREE_TOP_MULT_FACTOR = 1 / 3f;
-    private static final float TRUNK_SIZE_MULT_FACTOR = 1 / 5f;
-    private static final float TRUNK_WIDTH_DIMENSION = Block.SIZE;
-    private static final float WINDOW_HEIGHT_MULT_FACTOR = 1 / 9f;
-    private static final float LEAF_CREATION_THRESHOLD = 0.9f;
-    private static final float ZERO_MASS = 0f;
-
-    // Data members
-    private final Vector2 windowDimensions;
-    private final Function<Float, Float> heightAtCallback;
-    private final GameObjectCollection gameObjects;
-    private final int layer;
-    private final HashMap<Integer, Float> trunksXCoordsHeightsMap;
-
-    // Ctor
-    public TreeGenerator(Vector2 windowDimensions, Function<Float, Float> heightAtCallback,
-                         GameObjectCollection gameObjects, int layer) {
-        this.windowDimensions = windowDimensions;
-        this.heightAtCallback = heightAtCallback;
-        this.gameObjects = gameObjects;
-        this.layer = layer;
-        this.trunksXCoordsHeightsMap = new HashMap<>();
-    }
-
-
-    // ~~~~~~~~~~~~~~~~~~ Method ~~~~~~~~~~~~~~~~~~~~~~
-
-    /**
-     * This method is responsible for creates the trunk of a single Tree.
-     *
-     * @param xTrunkLeft - int, coordinate in which we will start to build the trunk
-     * @return Vector2 - vector2 that represent the end of the trunk (will be use for build the tree top)
-     * The method calc the exact starting coordinates of each tree by the given callback and starts build
-     * upon.
-     */
-    public Vector2 createTrunk(int xTrunkLeft) {
-        Float trunkHeight = trunksXCoordsHeightsMap.get(xTrunkLeft);
-        float groundHeightAtTrunkXCoord = heightAtCallback.apply((float) xTrunkLeft);
-        if (trunkHeight == null) {
-            // for round the blocks of the trunk
-            float distFromWindowTopBorder =
-                    BlockUtils.roundUpCoordToBlockSize(
-                            (int) (windowDimensions.y() * WINDOW_HEIGHT_MULT_FACTOR));
-            float yCoordTrunkTop = distFromWindowTopBorder + Tree.TREE_TOP_DIMENSION;
-            float maxTrunkSize = groundHeightAtTrunkXCoord - yCoordTrunkTop;
-            float minTrunkSize = maxTrunkSize * TRUNK_SIZE_MULT_FACTOR;
-            trunkHeight =
-                    (float) BlockUtils.roundDownCoordToBlockSize((int)
-                            RandomUtils.randomFloatNumberInRange(minTrunkSize, maxTrunkSize));
-            trunksXCoordsHeightsMap.put(xTrunkLeft, trunkHeight);
-        }
-        for (int i = 1; i < trunkHeight / Block.SIZE - 1; i++) {
-            for (int j = 0; j < TRUNK_WIDTH_DIMENSION / Block.SIZE; j++) {
-                Vector2 blocksCoords = new
-                        Vector2(xTrunkLeft + j * Block.SIZE, groundHeightAtTrunkXCoord - i * Block.SIZE);
-                Renderable blockRectangle =
-                        new RectangleRenderable(ColorSupplier.approximateColor(TRUNK_COLOR));
-                GameObject block = new Block(blocksCoords, blockRectangle);
-                block.setTag(TRUNK_TAG);
-                gameObjects.addGameObject(block, layer);
-            }
-        }
-        Vector2 trunkTopLeft = new Vector2(xTrunkLeft, groundHeightAtTrunkXCoord - trunkHeight + Block.SIZE);
-        GameObject block = new Block(
-                trunkTopLeft, new RectangleRenderable(ColorSupplier.approximateColor(TRUNK_COLOR)));
-        block.setTag(TRUNK_TAG);
-        gameObjects.addGameObject(block, layer);
-        return trunkTopLeft;
-    }
-
-    /**
-     * This method is responsible for builds the tree top of each tree.
-     *
-     * @param trunkTopLeft - vector2 that contains the top left coordinates of the trunk of the specific tree.
-     *                     The method calc the range and coordinates of the top tree by the given input and
-     *                     builds blocks (Leaf) upon.
-     */
-    public void createTreeTop(Vector2 trunkTopLeft) {
-        for (int i = 1; i <= Tree.TREE_TOP_DIMENSION / Block.SIZE; i++) {
-            for (int j = 0; j < Tree.TREE_TOP_DIMENSION / Block.SIZE; j++) {
-                if (RandomUtils.randBoolAccordThreshold(LEAF_CREATION_THRESHOLD)) {
-                    float xLeafTopLeftCorner =
-                            trunkTopLeft.x() - TREE_TOP_MULT_FACTOR * Tree.TREE_TOP_DIMENSION + j * Block.SIZE;
-                    float yLeafTopLeftCorner = trunkTopLeft.y() - i * Block.SIZE;
-                    Vector2 leafOriginalTopLeftCorner = new Vector2(xLeafTopLeftCorner, yLeafTopLeftCorner);
-                    Leaf leaf = new Leaf(leafOriginalTopLeftCorner,
-                            new RectangleRenderable(ColorSupplier.approximateColor(LEAF_COLOR)));
-                    leaf.physics().setMass(ZERO_MASS);
-                    leaf.setTag(LEAF_TAG);
-                    gameObjects.addGameObject(leaf, Layer.STATIC_OBJECTS + 5);
-                    leaf.scheduleLifeCycle();
-                }
-            }
-        }
-    }
-
-}
+package pepse.world.trees;
+
+import danogl.GameObject;
+import danogl.collisions.Layer;
+import danogl.util.Vector2;
+import pepse.util.BlockUtils;
+import pepse.util.ColorPalette;
+import pepse.world.Block;
+import pepse.world.chunks.ChunkObjectRegistry;
+import pepse.world.chunks.WorldChunkManager;
+import pepse.world.tiles.ChunkTiles;
+import pepse.world.tiles.TileMap;
+import pepse.world.tiles.TileType;
+
+import java.awt.*;
+import java.util.Arrays;
+
+
+/**
+ * This class is responsible for generate a Tree in the game.
+ * Every tree is stamped from one of the templates of a TreeTemplateCache - its trunk tiles are copied from
+ * the template as a single run, and its leaves are added to the game and to the LeafSystem in bulk.
+ */
+public class TreeGenerator {
+
+    // Constants
+    public static final String TRUNK_TAG = "trunk";
+    public static final String LEAF_TAG = "leaf";
+    private static final Color TRUNK_COLOR = new Color(100, 50, 20);
+    private static final Color LEAF_COLOR = new Color(50, 200, 30);
+    private static final float TRUNK_SIZE_MULT_FACTOR = 1 / 5f;
+    private static final float TRUNK_WIDTH_DIMENSION = Block.SIZE;
+    private static final float WINDOW_HEIGHT_MULT_FACTOR = 1 / 9f;
+    private static final float ZERO_MASS = 0f;
+    private static final int TREE_TOP_CELLS_COUNT =
+            (int) (Tree.TREE_TOP_DIMENSION / Block.SIZE * Tree.TREE_TOP_DIMENSION / Block.SIZE);
+    private static final int LEAVES_LAYER = Layer.STATIC_OBJECTS + 5;
+
+    // Data members
+    private final Vector2 windowDimensions;
+    private final ChunkObjectRegistry chunkObjectRegistry;
+    private final LeafPool leafPool;
+    private final LeafSystem leafSystem;
+    private final TileMap tileMap;
+    private final TreeTemplateCache treeTemplateCache;
+    private final Leaf[] treeTopLeaves;
+
+    // Ctor
+    public TreeGenerator(Vector2 windowDimensions, ChunkObjectRegistry chunkObjectRegistry, LeafPool leafPool,
+                         LeafSystem leafSystem, TileMap tileMap, ColorPalette colorPalette, int seed) {
+        this.windowDimensions = windowDimensions;
+        this.chunkObjectRegistry = chunkObjectRegistry;
+        this.leafPool = leafPool;
+        this.leafSystem = leafSystem;
+        this.tileMap = tileMap;
+        this.treeTemplateCache = new TreeTemplateCache(seed, TreeTemplateCache.DEFAULT_TEMPLATES_COUNT,
+                tileMap.rowsCount(), colorPalette, LEAF_COLOR);
+        this.treeTopLeaves = new Leaf[TREE_TOP_CELLS_COUNT];
+        tileMap.setBaseColor(TileType.TRUNK, TRUNK_COLOR);
+    }
+
+
+    // ~~~~~~~~~~~~~~~~~~ Method ~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method computes the data of a single tree (its template and trunk height) without creating any
+     * game object, so it can run on a chunks generation thread.
+     *
+     * @param xTrunkLeft   - int, coordinate in which the trunk starts.
+     * @param groundHeight - the ground height in the trunk coordinate.
+     * @return TreeData - the data of the tree.
+     */
+    public TreeData generateTreeData(int xTrunkLeft, float groundHeight) {
+        TreeTemplate template = treeTemplateCache.pick(xTrunkLeft);
+        float trunkHeight = calcTrunkHeight(groundHeight, template);
+        return new TreeData(xTrunkLeft, groundHeight, trunkHeight, template);
+    }
+
+    /**
+     * This method is responsible for creates the trunk of a single Tree from its data - copies its TRUNK
+     * tiles from its template to the tile map of its chunk and adds a single static collider of the whole
+     * trunk.
+     *
+     * @param treeData - the data of the tree.
+     * @return Vector2 - vector2 that represent the end of the trunk (will be use for build the tree top)
+     */
+    public Vector2 createTrunk(TreeData treeData) {
+        int xTrunkLeft = treeData.xCoord();
+        float groundHeightAtTrunkXCoord = treeData.groundHeight();
+        float trunkHeight = treeData.trunkHeight();
+        ChunkTiles chunkTiles = tileMap.chunkTiles(WorldChunkManager.chunkIndexAt(xTrunkLeft));
+        int column = Math.floorDiv(xTrunkLeft, Block.SIZE) -
+                chunkTiles.chunkIndex() * WorldChunkManager.CHUNK_WIDTH_IN_BLOCKS;
+        Vector2 trunkTopLeft = new Vector2(xTrunkLeft, groundHeightAtTrunkXCoord - trunkHeight + Block.SIZE);
+        // the trunk tiles are the rows from its top down to the row above the ground
+        int trunkRowsCount = Math.max((int) (trunkHeight / Block.SIZE) - 1, 1);
+        chunkTiles.setColumnRun(column, TileMap.rowOf(trunkTopLeft.y()), TileType.TRUNK,
+                treeData.template().trunkVariants(), 0, trunkRowsCount);
+        GameObject trunkCollider = new GameObject(trunkTopLeft,
+                new Vector2(TRUNK_WIDTH_DIMENSION, groundHeightAtTrunkXCoord - trunkTopLeft.y()), null);
+        trunkCollider.setTag(TRUNK_TAG);
+        chunkObjectRegistry.addStaticCollider(trunkCollider, xTrunkLeft);
+        return trunkTopLeft;
+    }
+
+    /**
+     * This method is responsible for builds the tree top of a tree from its data - stamps the leaves of its
+     * template around the top of the trunk, and adds all of them to the game and to the LeafSystem at once.
+     *
+     * @param trunkTopLeft - vector2 that contains the top left coordinates of the trunk of the tree.
+     * @param treeData     - the data of the tree.
+     */
+    public void createTreeTop(Vector2 trunkTopLeft, TreeData treeData) {
+        TreeTemplate template = treeData.template();
+        int leavesCount = template.leavesCount();
+        for (int leaf = 0; leaf < leavesCount; leaf++) {
+            Vector2 leafOriginalTopLeftCorner = new Vector2(trunkTopLeft.x() + template.leafOffsetX(leaf),
+                    trunkTopLeft.y() + template.leafOffsetY(leaf));
+            // the leaves share their renderables, their fade out is held by their own renderer
+            treeTopLeaves[leaf] =
+                    leafPool.obtainLeaf(leafOriginalTopLeftCorner, template.leafRenderable(leaf), LEAF_TAG);
+            treeTopLeaves[leaf].physics().setMass(ZERO_MASS);
+        }
+        chunkObjectRegistry.addAll(treeTopLeaves, leavesCount, LEAVES_LAYER, trunkTopLeft.x());
+        leafSystem.addLeaves(treeTopLeaves, leavesCount);
+        // the buffer must not keep the leaves alive after their chunk is unloaded
+        Arrays.fill(treeTopLeaves, 0, leavesCount, null);
+    }
+
+    /**
+     * @return int - the number of the tree templates the trees are stamped from.
+     */
+    public int templatesCount() {
+        return treeTemplateCache.templatesCount();
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Private methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method calc the height of a trunk, the template decides which part of the possible range the
+     * trunk takes. Both the template and the ground height are functions of the seed and the coordinate of
+     * the trunk, so the height is the same every time the trunk is created and it is not stored.
+     *
+     * @param groundHeight - the ground height in the trunk coordinate.
+     * @param template     - the template the tree is stamped from.
+     * @return float - the height of the trunk, rounded to the blocks size.
+     */
+    private float calcTrunkHeight(float groundHeight, TreeTemplate template) {
+        // for round the blocks of the trunk
+        float distFromWindowTopBorder =
+                BlockUtils.roundUpCoordToBlockSize((int) (windowDimensions.y() * WINDOW_HEIGHT_MULT_FACTOR));
+        float yCoordTrunkTop = distFromWindowTopBorder + Tree.TREE_TOP_DIMENSION;
+        float maxTrunkSize = groundHeight - yCoordTrunkTop;
+        float minTrunkSize = maxTrunkSize * TRUNK_SIZE_MULT_FACTOR;
+        return (float) BlockUtils.roundDownCoordToBlockSize((int)
+                (minTrunkSize + template.trunkHeightFraction() * (maxTrunkSize - minTrunkSize)));
+    }
+
+}
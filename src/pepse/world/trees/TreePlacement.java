@@ -0,0 +1,182 @@
+package pepse.world.trees;
+
+import pepse.util.HashRandom;
+import pepse.world.Block;
+import pepse.world.chunks.WorldChunkManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * This class decides where the trees of the world grow, by a deterministic blue noise (Poisson-disc like)
+ * scheme. Every block column draws, from HashRandom, whether it is a candidate and a priority. A candidate
+ * column has a tree if its priority is the highest among the candidates closer than the min distance
+ * between trees, so two trees are never too close, and the trees are spread without a fixed stride.
+ * Whether a column has a tree depends only on the seed and the columns around it, so the placement of a
+ * chunk is computed in a single pass over the chunk (and a margin of the min distance on each side), in
+ * any order and on any thread.
+ * The placement of a chunk is cached as a bitset (a bit per column) keyed by the chunk index, the least
+ * recently used chunks are evicted over the cap and computed again when needed.
+ */
+public class TreePlacement {
+
+    // Constants
+    public static final int DEFAULT_MAX_CACHED_CHUNKS = 256;
+    private static final float FLOAT_UNIT = 0x1.0p-24f;
+    private static final long NOT_A_CANDIDATE = -1;
+
+    // Data members
+    private final int seed;
+    private final int minDistanceInBlocks;
+    private final float candidateProbability;
+    private final int excludedColumn;
+    private final Map<Integer, Long> chunksBitsets;
+
+
+    /**
+     * This is the Ctor of the class
+     *
+     * @param seed                 - the seed of the game.
+     * @param minDistanceInBlocks  - the min distance between two trees, in blocks.
+     * @param candidateProbability - the probability of a column to be a candidate for a tree.
+     * @param excludedXCoord       - x coordinate in which a tree never grows (where the avatar starts).
+     * @param maxCachedChunks      - the max number of the chunks bitsets that are kept.
+     */
+    public TreePlacement(int seed, int minDistanceInBlocks, float candidateProbability, int excludedXCoord,
+                         int maxCachedChunks) {
+        this.seed = seed;
+        this.minDistanceInBlocks = minDistanceInBlocks;
+        this.candidateProbability = candidateProbability;
+        this.excludedColumn = Math.floorDiv(excludedXCoord, Block.SIZE);
+        // access ordered, so the eldest entry is the least recently used chunk
+        this.chunksBitsets = new LinkedHashMap<Integer, Long>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Long> eldest) {
+                return size() > maxCachedChunks;
+            }
+        };
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method gives the placement of the trees in the given chunk.
+     *
+     * @param chunkIndex - the index of the chunk.
+     * @return long - bitset of the chunk columns that have a tree, bit i for the i-th column of the chunk.
+     */
+    public long chunkBitset(int chunkIndex) {
+        synchronized (chunksBitsets) {
+            Long bitset = chunksBitsets.get(chunkIndex);
+            if (bitset != null) return bitset;
+        }
+        // computed out of the lock, two threads that compute the same chunk get the same bitset
+        long bitset = computeChunkBitset(chunkIndex);
+        synchronized (chunksBitsets) {
+            chunksBitsets.put(chunkIndex, bitset);
+        }
+        return bitset;
+    }
+
+    /**
+     * @param xCoord - x coordinate.
+     * @return boolean - true if a tree grows in the block column of the given coordinate, false else.
+     */
+    public boolean isTreeAt(int xCoord) {
+        int column = Math.floorDiv(xCoord, Block.SIZE);
+        int chunkIndex = Math.floorDiv(column, WorldChunkManager.CHUNK_WIDTH_IN_BLOCKS);
+        int bit = column - chunkIndex * WorldChunkManager.CHUNK_WIDTH_IN_BLOCKS;
+        return (chunkBitset(chunkIndex) & (1L << bit)) != 0;
+    }
+
+    /**
+     * This method finds the trees in the given range, in O(chunks + trees) - the set bits of every chunk
+     * bitset are iterated directly.
+     *
+     * @param minX - the min x coordinate of the range.
+     * @param maxX - the max x coordinate of the range.
+     * @return int array - the x coordinates of the trees in the range, from left to right.
+     */
+    public int[] treesInRange(int minX, int maxX) {
+        int minColumn = Math.floorDiv(minX, Block.SIZE);
+        int maxColumn = Math.floorDiv(maxX, Block.SIZE);
+        int[] treesXCoords = new int[maxColumn - minColumn + 1];
+        int treesCount = 0;
+        int firstChunk = Math.floorDiv(minColumn, WorldChunkManager.CHUNK_WIDTH_IN_BLOCKS);
+        int lastChunk = Math.floorDiv(maxColumn, WorldChunkManager.CHUNK_WIDTH_IN_BLOCKS);
+        for (int chunkIndex = firstChunk; chunkIndex <= lastChunk; chunkIndex++) {
+            int firstChunkColumn = chunkIndex * WorldChunkManager.CHUNK_WIDTH_IN_BLOCKS;
+            for (long bits = chunkBitset(chunkIndex); bits != 0; bits &= bits - 1) {
+                int column = firstChunkColumn + Long.numberOfTrailingZeros(bits);
+                if (column >= minColumn && column <= maxColumn) {
+                    treesXCoords[treesCount++] = column * Block.SIZE;
+                }
+            }
+        }
+        int[] result = new int[treesCount];
+        System.arraycopy(treesXCoords, 0, result, 0, treesCount);
+        return result;
+    }
+
+    /**
+     * @return int - the number of the chunks bitsets that are currently cached.
+     */
+    public int cachedChunksCount() {
+        synchronized (chunksBitsets) {
+            return chunksBitsets.size();
+        }
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Private methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method computes the placement of the trees in the given chunk - draws the priorities of the chunk
+     * columns and of the columns in the min distance around it, and keeps the candidates that have the
+     * highest priority in their neighbourhood.
+     *
+     * @param chunkIndex - the index of the chunk.
+     * @return long - bitset of the chunk columns that have a tree.
+     */
+    private long computeChunkBitset(int chunkIndex) {
+        int margin = minDistanceInBlocks - 1;
+        int firstColumn = chunkIndex * WorldChunkManager.CHUNK_WIDTH_IN_BLOCKS;
+        long[] priorities = new long[WorldChunkManager.CHUNK_WIDTH_IN_BLOCKS + 2 * margin];
+        for (int i = 0; i < priorities.length; i++) priorities[i] = priorityOf(firstColumn - margin + i);
+        long bitset = 0;
+        for (int i = 0; i < WorldChunkManager.CHUNK_WIDTH_IN_BLOCKS; i++) {
+            if (isHighestInNeighbourhood(priorities, i + margin, margin)) bitset |= 1L << i;
+        }
+        return bitset;
+    }
+
+    /**
+     * @param priorities - the priorities of a run of columns.
+     * @param index      - the index of the column to check in the run.
+     * @param margin     - the number of the neighbour columns on each side.
+     * @return boolean - true if the column is a candidate and has the highest priority among the candidates
+     * around it (a tie is won by the left column), false else.
+     */
+    private static boolean isHighestInNeighbourhood(long[] priorities, int index, int margin) {
+        long priority = priorities[index];
+        if (priority == NOT_A_CANDIDATE) return false;
+        for (int i = index - margin; i <= index + margin; i++) {
+            if (priorities[i] > priority || (priorities[i] == priority && i < index)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param column - block column.
+     * @return long - the priority of the column (non negative) if it is a candidate for a tree,
+     * NOT_A_CANDIDATE else.
+     */
+    private long priorityOf(int column) {
+        if (column == excludedColumn) return NOT_A_CANDIDATE;
+        long hash = HashRandom.hash(seed, column, 0, HashRandom.Purpose.TREE_PLACEMENT);
+        // the high bits decide whether the column is a candidate, the others are its priority
+        if ((hash >>> 40) * FLOAT_UNIT >= candidateProbability) return NOT_A_CANDIDATE;
+        return hash & 0xFFFFFFFFFFL;
+    }
+
+}
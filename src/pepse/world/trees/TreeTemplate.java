@@ -0,0 +1,101 @@
+package pepse.world.trees;
+
+import danogl.gui.rendering.Renderable;
+
+
+/**
+ * This class is a precomputed tree prefab - the shape of a tree that is stamped at many tree positions.
+ * It holds the leaves of the tree top (their offsets from the top left corner of the trunk and their shared
+ * renderables, in flat arrays), the color variants of the trunk tiles (from the top tile down) and the part
+ * of the possible trunk height range the trunk takes.
+ * A template holds no game object and is never changed after it was built, so it is shared by all the
+ * trees that are stamped from it, on any thread.
+ */
+public class TreeTemplate {
+
+    // Data members
+    private final int leafMask;
+    private final float[] leafOffsetsX;
+    private final float[] leafOffsetsY;
+    private final Renderable[] leafRenderables;
+    private final byte[] trunkVariants;
+    private final float trunkHeightFraction;
+
+
+    /**
+     * This is the Ctor of the class
+     *
+     * @param leafMask            - bit mask of the tree top cells that have a leaf, bit (row * columns +
+     *                            column).
+     * @param leafOffsetsX        - the x offsets of the leaves from the top left corner of the trunk.
+     * @param leafOffsetsY        - the y offsets of the leaves from the top left corner of the trunk.
+     * @param leafRenderables     - the shared renderables of the leaves.
+     * @param trunkVariants       - the color variants of the trunk tiles, from the top tile down.
+     * @param trunkHeightFraction - the part of the possible trunk height range the trunk takes, in [0, 1].
+     */
+    public TreeTemplate(int leafMask, float[] leafOffsetsX, float[] leafOffsetsY, Renderable[] leafRenderables,
+                        byte[] trunkVariants, float trunkHeightFraction) {
+        this.leafMask = leafMask;
+        this.leafOffsetsX = leafOffsetsX;
+        this.leafOffsetsY = leafOffsetsY;
+        this.leafRenderables = leafRenderables;
+        this.trunkVariants = trunkVariants;
+        this.trunkHeightFraction = trunkHeightFraction;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * @return int - the bit mask of the tree top cells that have a leaf.
+     */
+    public int leafMask() {
+        return leafMask;
+    }
+
+    /**
+     * @return int - the number of the leaves of the tree top.
+     */
+    public int leavesCount() {
+        return leafRenderables.length;
+    }
+
+    /**
+     * @param leaf - the index of the leaf in the template.
+     * @return float - the x offset of the leaf from the top left corner of the trunk.
+     */
+    public float leafOffsetX(int leaf) {
+        return leafOffsetsX[leaf];
+    }
+
+    /**
+     * @param leaf - the index of the leaf in the template.
+     * @return float - the y offset of the leaf from the top left corner of the trunk.
+     */
+    public float leafOffsetY(int leaf) {
+        return leafOffsetsY[leaf];
+    }
+
+    /**
+     * @param leaf - the index of the leaf in the template.
+     * @return Renderable - the shared renderable of the leaf.
+     */
+    public Renderable leafRenderable(int leaf) {
+        return leafRenderables[leaf];
+    }
+
+    /**
+     * @return byte array - the color variants of the trunk tiles from the top tile down, shared and must not
+     * be changed.
+     */
+    public byte[] trunkVariants() {
+        return trunkVariants;
+    }
+
+    /**
+     * @return float - the part of the possible trunk height range the trunk takes.
+     */
+    public float trunkHeightFraction() {
+        return trunkHeightFraction;
+    }
+
+}
@@ -0,0 +1,115 @@
+package pepse.world.trees;
+
+import danogl.gui.rendering.Renderable;
+import pepse.util.ColorPalette;
+import pepse.util.HashRandom;
+import pepse.world.Block;
+
+import java.awt.*;
+
+
+/**
+ * This class holds a fixed set of tree templates that is drawn once from the seed of the game, instead of
+ * drawing the leaves and the trunk of every tree on its creation. A tree picks one of the templates, and
+ * creating it is copying the template (the trunk tiles variants and the leaves offsets) plus adding its
+ * leaves to the game. The templates, and the template of every tree, are drawn from HashRandom, so they
+ * don't depend on the order the trees are created in.
+ */
+public class TreeTemplateCache {
+
+    // Constants
+    public static final int DEFAULT_TEMPLATES_COUNT = 64;
+    private static final float TREE_TOP_MULT_FACTOR = 1 / 3f;
+    private static final float LEAF_CREATION_THRESHOLD = 0.9f;
+    private static final int TREE_TOP_CELLS_IN_ROW = (int) (Tree.TREE_TOP_DIMENSION / Block.SIZE);
+
+    // Data members
+    private final int seed;
+    private final TreeTemplate[] templates;
+
+
+    /**
+     * This is the Ctor of the class, builds all the templates.
+     *
+     * @param seed           - the seed of the game, the templates are drawn from it.
+     * @param templatesCount - the number of the templates.
+     * @param maxTrunkRows   - the max number of tiles in a trunk.
+     * @param colorPalette   - the palette of the shared leaves renderables.
+     * @param leafColor      - the base color of the leaves.
+     */
+    public TreeTemplateCache(int seed, int templatesCount, int maxTrunkRows, ColorPalette colorPalette,
+                             Color leafColor) {
+        this.seed = seed;
+        this.templates = new TreeTemplate[templatesCount];
+        for (int i = 0; i < templatesCount; i++) {
+            templates[i] = createTemplate(seed, i, maxTrunkRows, colorPalette, leafColor);
+        }
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * @param xCoord - the x coordinate of the trunk of the tree.
+     * @return TreeTemplate - the template of the tree in the given coordinate.
+     */
+    public TreeTemplate pick(int xCoord) {
+        int templateIndex =
+                HashRandom.nextInt(seed, xCoord, 0, HashRandom.Purpose.TREE_TEMPLATE, templates.length);
+        return templates[templateIndex];
+    }
+
+    /**
+     * @return int - the number of the templates.
+     */
+    public int templatesCount() {
+        return templates.length;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Private methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method draws a single template - which cells of the tree top have a leaf (and the renderables of
+     * the leaves), the trunk tiles variants and the trunk height.
+     *
+     * @param seed          - the seed of the game.
+     * @param templateIndex - the index of the template.
+     * @param maxTrunkRows  - the max number of tiles in a trunk.
+     * @param colorPalette  - the palette of the shared leaves renderables.
+     * @param leafColor     - the base color of the leaves.
+     * @return TreeTemplate - the template.
+     */
+    private static TreeTemplate createTemplate(int seed, int templateIndex, int maxTrunkRows,
+                                               ColorPalette colorPalette, Color leafColor) {
+        int leafMask = 0;
+        for (int cell = 0; cell < TREE_TOP_CELLS_IN_ROW * TREE_TOP_CELLS_IN_ROW; cell++) {
+            if (HashRandom.boolAccordThreshold(seed, templateIndex, cell, HashRandom.Purpose.TEMPLATE_LEAF,
+                    LEAF_CREATION_THRESHOLD)) {
+                leafMask |= 1 << cell;
+            }
+        }
+        int leavesCount = Integer.bitCount(leafMask);
+        float[] leafOffsetsX = new float[leavesCount];
+        float[] leafOffsetsY = new float[leavesCount];
+        Renderable[] leafRenderables = new Renderable[leavesCount];
+        int leaf = 0;
+        for (int i = 1; i <= TREE_TOP_CELLS_IN_ROW; i++) {
+            for (int j = 0; j < TREE_TOP_CELLS_IN_ROW; j++) {
+                if ((leafMask & (1 << ((i - 1) * TREE_TOP_CELLS_IN_ROW + j))) == 0) continue;
+                leafOffsetsX[leaf] = -TREE_TOP_MULT_FACTOR * Tree.TREE_TOP_DIMENSION + j * Block.SIZE;
+                leafOffsetsY[leaf] = -i * Block.SIZE;
+                int variant = HashRandom.nextInt(seed, templateIndex, leaf,
+                        HashRandom.Purpose.TEMPLATE_LEAF_VARIANT, ColorPalette.VARIANTS_COUNT);
+                leafRenderables[leaf] = colorPalette.renderableOf(leafColor, variant);
+                leaf++;
+            }
+        }
+        byte[] trunkVariants = new byte[maxTrunkRows];
+        for (int i = 0; i < maxTrunkRows; i++) {
+            trunkVariants[i] = (byte) HashRandom.nextInt(seed, templateIndex, i,
+                    HashRandom.Purpose.TEMPLATE_TRUNK_VARIANT, ColorPalette.VARIANTS_COUNT);
+        }
+        return new TreeTemplate(leafMask, leafOffsetsX, leafOffsetsY, leafRenderables, trunkVariants,
+                HashRandom.nextFloat(seed, templateIndex, 0, HashRandom.Purpose.TEMPLATE_TRUNK_HEIGHT));
+    }
+
+}
@@ -0,0 +1,113 @@
+package pepse.util;
+
+import danogl.gui.rendering.RectangleRenderable;
+
+import java.awt.*;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * This class is a flyweight registry of colors and renderables - for every base color it creates, once, a
+ * bounded set of color variants (similar colors) and a rectangle renderable per variant, which are shared by
+ * all the objects of that color.
+ * The variants are drawn from the seed of the game, and an object picks its variant deterministically by
+ * its coordinates. A renderable holds no per object state - the opaqueness and the angle of an object are
+ * held by its own Renderer - so objects that fade out or rotate (like the leaves) can share it as well.
+ */
+public final class ColorPalette {
+
+    // Constants
+    public static final int VARIANTS_COUNT = 16;
+
+    // Data members
+    private final int seed;
+    private final Map<Color, Color[]> colorsVariants;
+    private final Map<Color, RectangleRenderable[]> renderablesVariants;
+
+
+    /**
+     * This is the Ctor of the class
+     *
+     * @param seed - the seed of the game, the variants are drawn from it.
+     */
+    public ColorPalette(int seed) {
+        this.seed = seed;
+        // leaves renderables are asked for on the game thread, colors may be asked for on any thread
+        this.colorsVariants = new ConcurrentHashMap<>();
+        this.renderablesVariants = new ConcurrentHashMap<>();
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method gives the color variants of the given base color, the returned array is shared and must
+     * not be changed.
+     *
+     * @param baseColor - the base color.
+     * @return Color array - VARIANTS_COUNT colors similar to the base color.
+     */
+    public Color[] variantsOf(Color baseColor) {
+        return colorsVariants.computeIfAbsent(baseColor, color -> {
+            long colorSeed = HashRandom.hash(seed, color.getRGB(), 0, HashRandom.Purpose.COLOR_CHANNEL);
+            Color[] variants = new Color[VARIANTS_COUNT];
+            for (int i = 0; i < VARIANTS_COUNT; i++) {
+                variants[i] = ColorSupplier.approximateColor(color, colorSeed, i);
+            }
+            return variants;
+        });
+    }
+
+    /**
+     * @param baseColor - the base color.
+     * @param variant   - the index of the variant, in [0, VARIANTS_COUNT).
+     * @return RectangleRenderable - the shared renderable of the given variant of the base color.
+     */
+    public RectangleRenderable renderableOf(Color baseColor, int variant) {
+        return renderablesVariants.computeIfAbsent(baseColor, color -> {
+            Color[] variants = variantsOf(color);
+            RectangleRenderable[] renderables = new RectangleRenderable[VARIANTS_COUNT];
+            for (int i = 0; i < VARIANTS_COUNT; i++) renderables[i] = new RectangleRenderable(variants[i]);
+            return renderables;
+        })[variant];
+    }
+
+    /**
+     * @param baseColor - the base color.
+     * @param x         - the x coordinate of the object.
+     * @param y         - the y coordinate of the object.
+     * @return RectangleRenderable - the shared renderable of the variant of the object in the given
+     * coordinates.
+     */
+    public RectangleRenderable renderableAt(Color baseColor, int x, int y) {
+        return renderableOf(baseColor, variantAt(x, y));
+    }
+
+    /**
+     * @param baseColor - the base color.
+     * @return RectangleRenderable - the shared renderable of the variant of the seed, for objects that have
+     * no coordinates in the world (like the sky).
+     */
+    public RectangleRenderable renderableOf(Color baseColor) {
+        return renderableOf(baseColor, variantAt(0, 0));
+    }
+
+    /**
+     * This method picks a variant by the given coordinates and the seed of the game.
+     *
+     * @param x - the x coordinate of the object.
+     * @param y - the y coordinate of the object.
+     * @return int - the index of the variant, in [0, VARIANTS_COUNT).
+     */
+    public int variantAt(int x, int y) {
+        return HashRandom.nextInt(seed, x, y, HashRandom.Purpose.COLOR_VARIANT, VARIANTS_COUNT);
+    }
+
+    /**
+     * @return int - the number of the base colors that have shared renderables.
+     */
+    public int baseColorsCount() {
+        return renderablesVariants.size();
+    }
+
+}
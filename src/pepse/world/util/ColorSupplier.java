@@ -1,7 +1,7 @@
 package pepse.util;
 
 import java.awt.*;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Provides procedurally-generated colors around a pivot.
@@ -11,7 +11,6 @@ import java.util.Random;
 public final class ColorSupplier {
 
     private static final int DEFAULT_COLOR_DELTA = 10;
-    private final static Random random = new Random();
 
     /**
      * Returns a color similar to baseColor, with a default delta.
@@ -31,22 +30,48 @@ public final class ColorSupplier {
      * @return A color similar to baseColor.
      */
     public static Color approximateColor(Color baseColor, int colorDelta) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new Color(
+                clipChannel(baseColor.getRed() + random.nextInt(-colorDelta, colorDelta + 1)),
+                clipChannel(baseColor.getGreen() + random.nextInt(-colorDelta, colorDelta + 1)),
+                clipChannel(baseColor.getBlue() + random.nextInt(-colorDelta, colorDelta + 1)));
+    }
 
+    /**
+     * Returns a color similar to baseColor, with a default delta, drawn from HashRandom by the given seed
+     * and index (so the same seed and index always give the same color).
+     *
+     * @param baseColor A color that we wish to approximate.
+     * @param seed      The seed to draw the color by.
+     * @param index     The index of the color among the colors drawn by the seed.
+     * @return A color similar to baseColor.
+     */
+    public static Color approximateColor(Color baseColor, long seed, int index) {
         return new Color(
-                randomChannelInRange(baseColor.getRed() - colorDelta, baseColor.getRed() + colorDelta),
-                randomChannelInRange(baseColor.getGreen() - colorDelta, baseColor.getGreen() + colorDelta),
-                randomChannelInRange(baseColor.getBlue() - colorDelta, baseColor.getBlue() + colorDelta));
+                hashChannel(baseColor.getRed(), seed, index, 0),
+                hashChannel(baseColor.getGreen(), seed, index, 1),
+                hashChannel(baseColor.getBlue(), seed, index, 2));
     }
 
     /**
-     * This method generates a random value for a color channel within the given range [min, max].
+     * This method draws a value for a color channel around the given one from HashRandom.
      *
-     * @param min The lower bound of the given range.
-     * @param max The upper bound of the given range.
-     * @return A random number in the range [min, max], clipped to [0,255].
+     * @param channel      The base value of the channel.
+     * @param seed         The seed to draw the value by.
+     * @param index        The index of the color among the colors drawn by the seed.
+     * @param channelIndex The index of the channel in the color.
+     * @return A random number in the range [channel - delta, channel + delta], clipped to [0,255].
+     */
+    private static int hashChannel(int channel, long seed, int index, int channelIndex) {
+        return clipChannel(channel - DEFAULT_COLOR_DELTA + HashRandom.nextInt(seed, index, channelIndex,
+                HashRandom.Purpose.COLOR_CHANNEL, 2 * DEFAULT_COLOR_DELTA + 1));
+    }
+
+    /**
+     * @param channel A value of a color channel.
+     * @return The value clipped to [0,255].
      */
-    private static int randomChannelInRange(int min, int max) {
-        int channel = random.nextInt(max - min + 1) + min;
+    private static int clipChannel(int channel) {
         return Math.min(255, Math.max(channel, 0));
     }
 
@@ -0,0 +1,204 @@
+package pepse.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * This class writes the windows of the frame profiler to a rolling CSV file, a row per phase of every
+ * window (and a row of the whole update and of the time between the updates).
+ * The rows are formatted and written on a single background thread, so the game thread only hands the
+ * window over. When the file grows over the cap it is moved aside (to the same name with a ".1" suffix,
+ * over the previous one) and a new file is started.
+ * The writer holds the file until it is closed - the game closes it when it is reset (the writer of the new
+ * game appends to the same file) and when it exits.
+ */
+public class FrameProfileCsvWriter implements FrameProfiler.WindowListener {
+
+    // Constants
+    public static final long DEFAULT_MAX_FILE_BYTES = 8 << 20;
+    private static final String HEADER = "time_ms,phase,count,p50_us,p99_us,p999_us,max_us";
+    private static final String ROW_FORMAT = "%d,%s,%d,%.1f,%.1f,%.1f,%.1f%n";
+    private static final String UPDATE_ROW_NAME = "UPDATE";
+    private static final String BETWEEN_UPDATES_ROW_NAME = "BETWEEN_UPDATES";
+    private static final String ROLLED_FILE_SUFFIX = ".1";
+    private static final double NANOS_IN_MICRO = 1e3;
+    private static final long CLOSE_TIMEOUT_SECONDS = 5;
+
+    // Data members
+    private final Path path;
+    private final long maxFileBytes;
+    private final ExecutorService executor;
+    private BufferedWriter writer;
+    private long fileBytes;
+
+
+    /**
+     * This is the Ctor of the class, starts a new file at the given path or appends to it.
+     *
+     * @param path         - the path of the CSV file.
+     * @param maxFileBytes - the size the file is rolled over at.
+     * @param isAppending  - true to append to the file if it exists, false to start it again.
+     * @throws UncheckedIOException - if the file can't be created.
+     */
+    public FrameProfileCsvWriter(Path path, long maxFileBytes, boolean isAppending) {
+        this.path = path;
+        this.maxFileBytes = maxFileBytes;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "frame-profile-csv");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            if (isAppending && Files.exists(path)) {
+                appendToFile();
+            } else {
+                openNewFile();
+            }
+        } catch (IOException e) {
+            executor.shutdown();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method hands the given window to the writing thread.
+     *
+     * @param window - the percentiles of the window.
+     */
+    @Override
+    public synchronized void onWindow(FrameProfiler.Window window) {
+        if (!executor.isShutdown()) executor.execute(() -> write(window));
+    }
+
+    /**
+     * This method writes the windows that were handed over so far and closes the file. Closing a closed
+     * writer does nothing, the windows that are handed over after the closing are dropped.
+     */
+    public synchronized void close() {
+        if (executor.isShutdown()) return;
+        executor.execute(this::closeFile);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Private methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method writes the rows of the given window, on the writing thread. A failed write stops the
+     * writing, it never reaches the game.
+     *
+     * @param window - the percentiles of the window.
+     */
+    private void write(FrameProfiler.Window window) {
+        if (writer == null) return;
+        StringBuilder rows = new StringBuilder();
+        for (FrameProfiler.Phase phase : FrameProfiler.Phase.values()) {
+            appendRow(rows, window.endTimeMillis(), phase.name(), window.phase(phase));
+        }
+        appendRow(rows, window.endTimeMillis(), UPDATE_ROW_NAME, window.frame());
+        appendRow(rows, window.endTimeMillis(), BETWEEN_UPDATES_ROW_NAME, window.betweenUpdates());
+        try {
+            if (fileBytes + rows.length() > maxFileBytes) rollFile();
+            writer.write(rows.toString());
+            writer.flush();
+            fileBytes += rows.length();
+        } catch (IOException e) {
+            System.err.println("Frame profile CSV writing stopped: " + e.getMessage());
+            closeFile();
+        }
+    }
+
+    /**
+     * @param rows          - the rows to append to.
+     * @param endTimeMillis - the end time of the window.
+     * @param name          - the name of the row.
+     * @param snapshot      - the spans of the row, in nanoseconds.
+     */
+    private static void appendRow(StringBuilder rows, long endTimeMillis, String name,
+                                  LatencyHistogram.Snapshot snapshot) {
+        rows.append(String.format(Locale.ROOT, ROW_FORMAT, endTimeMillis, name, snapshot.count(),
+                snapshot.valueAtPercentile(50) / NANOS_IN_MICRO,
+                snapshot.valueAtPercentile(99) / NANOS_IN_MICRO,
+                snapshot.valueAtPercentile(99.9) / NANOS_IN_MICRO,
+                snapshot.max() / NANOS_IN_MICRO));
+    }
+
+    /**
+     * This method moves the full file aside and starts a new one.
+     *
+     * @throws IOException - if the file can't be moved or created.
+     */
+    private void rollFile() throws IOException {
+        writer.close();
+        Files.move(path, path.resolveSibling(path.getFileName() + ROLLED_FILE_SUFFIX),
+                StandardCopyOption.REPLACE_EXISTING);
+        openNewFile();
+    }
+
+    /**
+     * This method starts a new file with the header row.
+     *
+     * @throws IOException - if the file can't be created.
+     */
+    private void openNewFile() throws IOException {
+        writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        writeHeader();
+    }
+
+    /**
+     * This method opens the existing file for appending, the header row is written only if the file is
+     * empty.
+     *
+     * @throws IOException - if the file can't be opened.
+     */
+    private void appendToFile() throws IOException {
+        writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.APPEND,
+                StandardOpenOption.WRITE);
+        fileBytes = Files.size(path);
+        if (fileBytes == 0) writeHeader();
+    }
+
+    /**
+     * This method writes the header row to the opened empty file.
+     *
+     * @throws IOException - if the row can't be written.
+     */
+    private void writeHeader() throws IOException {
+        writer.write(HEADER);
+        writer.newLine();
+        writer.flush();
+        fileBytes = HEADER.length() + System.lineSeparator().length();
+    }
+
+    /**
+     * This method closes the file, ignoring a failure of the closing.
+     */
+    private void closeFile() {
+        if (writer == null) return;
+        try {
+            writer.close();
+        } catch (IOException ignored) {
+            // nothing is left to write
+        }
+        writer = null;
+    }
+
+}
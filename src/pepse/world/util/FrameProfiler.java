@@ -0,0 +1,314 @@
+package pepse.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+
+/**
+ * This class measures how long every phase of a frame update takes, by System.nanoTime spans around the
+ * phases of PepseGameManager.update.
+ * A span is measured by laps - the time from the previous lap to the current one is added to the phase
+ * that just ended. When the profiler is disabled a lap doesn't read the clock, so it costs a branch.
+ * Besides the means, every span is recorded in a latency histogram of its phase, and so are the whole
+ * update and the time between two updates (the rendering and the rest of the engine loop, which run
+ * outside of the update). Once a window of time passes, the histograms are drained into a Window of
+ * percentiles that is handed to the window listeners.
+ */
+public class FrameProfiler {
+
+    /**
+     * This enum class contains the measured phases of a frame update, in their order in the frame.
+     */
+    public enum Phase {WORLD, LEAVES, OBJECTS, COLLISIONS}
+
+    /**
+     * This interface is a listener of the windows of the profiler, called on the game thread.
+     */
+    public interface WindowListener {
+
+        /**
+         * This method is called when a window of the profiler ends.
+         *
+         * @param window - the percentiles of the window.
+         */
+        void onWindow(Window window);
+    }
+
+    // Constants
+    public static final long DEFAULT_WINDOW_NANOS = 1_000_000_000L;
+    private static final Phase[] PHASES = Phase.values();
+    private static final double NANOS_IN_MILLI = 1e6;
+    private static final long NOT_MEASURED = 0;
+
+    // Data members
+    private boolean isEnabled;
+    private final long[] phasesNanos;
+    private long framesNanos;
+    private int framesCount;
+    private long windowNanos;
+    private final LatencyHistogram[] phasesHistograms;
+    private final LatencyHistogram framesHistogram;
+    private final LatencyHistogram betweenUpdatesHistogram;
+    private final List<WindowListener> windowListeners;
+    private long windowStart;
+    private long previousFrameEnd;
+
+
+    /**
+     * This is the Ctor of the class, the profiler starts disabled.
+     *
+     * @param windowNanos - the length of a window of percentiles, in nanoseconds.
+     */
+    public FrameProfiler(long windowNanos) {
+        this.windowNanos = windowNanos;
+        this.phasesNanos = new long[PHASES.length];
+        this.phasesHistograms = new LatencyHistogram[PHASES.length];
+        for (int i = 0; i < PHASES.length; i++) phasesHistograms[i] = new LatencyHistogram();
+        this.framesHistogram = new LatencyHistogram();
+        this.betweenUpdatesHistogram = new LatencyHistogram();
+        this.windowListeners = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * This is the Ctor of the class, the profiler starts disabled and its windows are a second long.
+     */
+    public FrameProfiler() {
+        this(DEFAULT_WINDOW_NANOS);
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * @param isEnabled - true for measuring the frames, false for not.
+     */
+    public void setEnabled(boolean isEnabled) {
+        this.isEnabled = isEnabled;
+        // the time the profiler was disabled is not a gap between updates, and starts a new window
+        previousFrameEnd = NOT_MEASURED;
+        windowStart = NOT_MEASURED;
+    }
+
+    /**
+     * @return boolean - true if the profiler measures the frames, false else.
+     */
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * @param windowNanos - the length of a window of percentiles, in nanoseconds (Long.MAX_VALUE for a
+     *                    single window that is ended only by drainWindow).
+     */
+    public void setWindowNanos(long windowNanos) {
+        this.windowNanos = windowNanos;
+    }
+
+    /**
+     * This method registers a listener that gets the percentiles of every window.
+     *
+     * @param windowListener - the listener.
+     */
+    public void addWindowListener(WindowListener windowListener) {
+        windowListeners.add(windowListener);
+    }
+
+    /**
+     * @param windowListener - a registered listener, it doesn't get the following windows.
+     */
+    public void removeWindowListener(WindowListener windowListener) {
+        windowListeners.remove(windowListener);
+    }
+
+    /**
+     * This method starts measuring a frame.
+     *
+     * @return long - the start time of the frame (0 when disabled).
+     */
+    public long startFrame() {
+        if (!isEnabled) return NOT_MEASURED;
+        long now = System.nanoTime();
+        if (previousFrameEnd != NOT_MEASURED) betweenUpdatesHistogram.record(now - previousFrameEnd);
+        return now;
+    }
+
+    /**
+     * This method ends the given phase - adds the time since the previous lap to it.
+     *
+     * @param phase       - the phase that ended.
+     * @param previousLap - the time of the previous lap (or the start of the frame).
+     * @return long - the time of this lap (0 when disabled).
+     */
+    public long lap(Phase phase, long previousLap) {
+        if (!isEnabled) return NOT_MEASURED;
+        long now = System.nanoTime();
+        phasesNanos[phase.ordinal()] += now - previousLap;
+        phasesHistograms[phase.ordinal()].record(now - previousLap);
+        return now;
+    }
+
+    /**
+     * This method ends measuring a frame, and ends the window if it is long enough.
+     *
+     * @param frameStart - the start time of the frame.
+     * @param lastLap    - the time of the last lap of the frame.
+     */
+    public void endFrame(long frameStart, long lastLap) {
+        if (!isEnabled) return;
+        framesNanos += lastLap - frameStart;
+        framesCount++;
+        framesHistogram.record(lastLap - frameStart);
+        previousFrameEnd = lastLap;
+        if (windowStart == NOT_MEASURED) {
+            windowStart = frameStart;
+        } else if (lastLap - windowStart >= windowNanos) {
+            endWindow(lastLap);
+        }
+    }
+
+    /**
+     * @param phase - a phase of the frame.
+     * @return double - the mean time of the given phase in a frame, in milliseconds.
+     */
+    public double meanPhaseMillis(Phase phase) {
+        return framesCount == 0 ? 0 : phasesNanos[phase.ordinal()] / NANOS_IN_MILLI / framesCount;
+    }
+
+    /**
+     * @return double - the mean time of a frame update, in milliseconds.
+     */
+    public double meanFrameMillis() {
+        return framesCount == 0 ? 0 : framesNanos / NANOS_IN_MILLI / framesCount;
+    }
+
+    /**
+     * @return int - the number of the measured frames.
+     */
+    public int framesCount() {
+        return framesCount;
+    }
+
+    /**
+     * This method ends the current window now - drains the histograms into a window, without handing it to
+     * the listeners.
+     *
+     * @return Window - the percentiles since the previous window.
+     */
+    public Window drainWindow() {
+        long now = System.nanoTime();
+        Window window = createWindow(now);
+        windowStart = isEnabled ? now : NOT_MEASURED;
+        return window;
+    }
+
+    /**
+     * This method clears all the measurements.
+     */
+    public void reset() {
+        Arrays.fill(phasesNanos, 0);
+        framesNanos = 0;
+        framesCount = 0;
+        for (LatencyHistogram phaseHistogram : phasesHistograms) phaseHistogram.drain();
+        framesHistogram.drain();
+        betweenUpdatesHistogram.drain();
+        previousFrameEnd = NOT_MEASURED;
+        windowStart = NOT_MEASURED;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Private methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method drains the histograms into a window and hands it to the listeners.
+     *
+     * @param now - the end time of the window.
+     */
+    private void endWindow(long now) {
+        Window window = createWindow(now);
+        windowStart = now;
+        for (WindowListener windowListener : windowListeners) windowListener.onWindow(window);
+    }
+
+    /**
+     * @param now - the end time of the window.
+     * @return Window - the drained histograms of the window.
+     */
+    private Window createWindow(long now) {
+        LatencyHistogram.Snapshot[] phasesSnapshots = new LatencyHistogram.Snapshot[PHASES.length];
+        for (int i = 0; i < PHASES.length; i++) phasesSnapshots[i] = phasesHistograms[i].drain();
+        long durationNanos = windowStart == NOT_MEASURED ? 0 : now - windowStart;
+        return new Window(System.currentTimeMillis(), durationNanos, phasesSnapshots,
+                framesHistogram.drain(), betweenUpdatesHistogram.drain());
+    }
+
+    /**
+     * This class is the percentiles of a window of the profiler - a histogram snapshot per phase, of the
+     * whole update and of the time between the updates.
+     */
+    public static class Window {
+
+        // Data members
+        private final long endTimeMillis;
+        private final long durationNanos;
+        private final LatencyHistogram.Snapshot[] phasesSnapshots;
+        private final LatencyHistogram.Snapshot framesSnapshot;
+        private final LatencyHistogram.Snapshot betweenUpdatesSnapshot;
+
+
+        /**
+         * This is the Ctor of the class
+         *
+         * @param endTimeMillis          - the wall clock time the window ended at.
+         * @param durationNanos          - the length of the window.
+         * @param phasesSnapshots        - the snapshots of the phases, by the phase ordinal.
+         * @param framesSnapshot         - the snapshot of the whole update.
+         * @param betweenUpdatesSnapshot - the snapshot of the time between the updates.
+         */
+        private Window(long endTimeMillis, long durationNanos, LatencyHistogram.Snapshot[] phasesSnapshots,
+                       LatencyHistogram.Snapshot framesSnapshot,
+                       LatencyHistogram.Snapshot betweenUpdatesSnapshot) {
+            this.endTimeMillis = endTimeMillis;
+            this.durationNanos = durationNanos;
+            this.phasesSnapshots = phasesSnapshots;
+            this.framesSnapshot = framesSnapshot;
+            this.betweenUpdatesSnapshot = betweenUpdatesSnapshot;
+        }
+
+        /**
+         * @return long - the wall clock time the window ended at (System.currentTimeMillis).
+         */
+        public long endTimeMillis() {
+            return endTimeMillis;
+        }
+
+        /**
+         * @return long - the length of the window, in nanoseconds.
+         */
+        public long durationNanos() {
+            return durationNanos;
+        }
+
+        /**
+         * @param phase - a phase of the frame.
+         * @return LatencyHistogram.Snapshot - the spans of the given phase in the window, in nanoseconds.
+         */
+        public LatencyHistogram.Snapshot phase(Phase phase) {
+            return phasesSnapshots[phase.ordinal()];
+        }
+
+        /**
+         * @return LatencyHistogram.Snapshot - the spans of the whole update in the window, in nanoseconds.
+         */
+        public LatencyHistogram.Snapshot frame() {
+            return framesSnapshot;
+        }
+
+        /**
+         * @return LatencyHistogram.Snapshot - the spans between two updates in the window (rendering and the
+         * rest of the engine loop), in nanoseconds.
+         */
+        public LatencyHistogram.Snapshot betweenUpdates() {
+            return betweenUpdatesSnapshot;
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+package pepse.util;
+
+
+/**
+ * This util class is a stateless, counter based random generator - every random value is a SplitMix64
+ * hash of a key (the seed of the game, two coordinates and the purpose of the value), instead of the next
+ * value of a stateful generator.
+ * It doesn't allocate and holds no state, so it is safe on any thread, and a value depends only on its key
+ * - a chunk that is generated again (in any order, on any thread) gets the same values it got the first
+ * time.
+ */
+public final class HashRandom {
+
+    // Constants
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final float FLOAT_UNIT = 0x1.0p-24f;
+
+    /**
+     * This enum class contains the purposes of the random values, so values of different purposes in the
+     * same coordinates are independent.
+     */
+    public enum Purpose {
+        TREE_PLACEMENT, TREE_TEMPLATE, TEMPLATE_LEAF, TEMPLATE_LEAF_VARIANT, TEMPLATE_TRUNK_VARIANT,
+        TEMPLATE_TRUNK_HEIGHT, COLOR_CHANNEL, COLOR_VARIANT, LEAF_LIFE_CYCLE_PERIOD, LEAF_FALL
+    }
+
+    private HashRandom() {
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method hashes the given key to 64 random bits.
+     *
+     * @param seed    - the seed of the game.
+     * @param x       - the first coordinate of the key (a world coordinate, or an index).
+     * @param y       - the second coordinate of the key (a world coordinate, or an index).
+     * @param purpose - the purpose of the value.
+     * @return long - the random bits of the key.
+     */
+    public static long hash(long seed, int x, int y, Purpose purpose) {
+        long z = mix64(seed + GOLDEN_GAMMA);
+        z = mix64(z + GOLDEN_GAMMA + x);
+        z = mix64(z + GOLDEN_GAMMA + y);
+        return mix64(z + GOLDEN_GAMMA + purpose.ordinal());
+    }
+
+    /**
+     * @param seed    - the seed of the game.
+     * @param x       - the first coordinate of the key.
+     * @param y       - the second coordinate of the key.
+     * @param purpose - the purpose of the value.
+     * @return float - the random float of the key, in [0, 1).
+     */
+    public static float nextFloat(long seed, int x, int y, Purpose purpose) {
+        return (hash(seed, x, y, purpose) >>> 40) * FLOAT_UNIT;
+    }
+
+    /**
+     * @param seed    - the seed of the game.
+     * @param x       - the first coordinate of the key.
+     * @param y       - the second coordinate of the key.
+     * @param purpose - the purpose of the value.
+     * @param bound   - the upper bound (exclusive), positive.
+     * @return int - the random int of the key, in [0, bound).
+     */
+    public static int nextInt(long seed, int x, int y, Purpose purpose, int bound) {
+        return (int) (((hash(seed, x, y, purpose) >>> 32) * bound) >>> 32);
+    }
+
+    /**
+     * @param seed    - the seed of the game.
+     * @param x       - the first coordinate of the key.
+     * @param y       - the second coordinate of the key.
+     * @param purpose - the purpose of the value.
+     * @param min     - float start index
+     * @param max     - float end index
+     * @return float - the random float of the key, in the range of min to max.
+     */
+    public static float floatInRange(long seed, int x, int y, Purpose purpose, float min, float max) {
+        return nextFloat(seed, x, y, purpose) * (max - min) + min;
+    }
+
+    /**
+     * @param seed      - the seed of the game.
+     * @param x         - the first coordinate of the key.
+     * @param y         - the second coordinate of the key.
+     * @param purpose   - the purpose of the value.
+     * @param threshold - float number that indicates the wanted threshold
+     * @return boolean - if the random float of the key is under the given threshold or not.
+     */
+    public static boolean boolAccordThreshold(long seed, int x, int y, Purpose purpose, float threshold) {
+        return nextFloat(seed, x, y, purpose) <= threshold;
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Private methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method is the finalizer of SplitMix64 - mixes the bits of the given value.
+     *
+     * @param z - the value to mix.
+     * @return long - the mixed value.
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+}
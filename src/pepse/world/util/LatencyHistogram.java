@@ -0,0 +1,148 @@
+package pepse.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * This class is a lock-free latency histogram with log-linear buckets (in the spirit of HdrHistogram) - the
+ * values are counted in buckets whose width grows with the value, so every value is kept with a bounded
+ * relative error (1 / SUB_BUCKETS_HALF) in a fixed, small array.
+ * Recording is a single atomic increment, and the histogram is drained (read and cleared) bucket by bucket
+ * with atomic swaps, so a value recorded while draining is never lost - it is counted in this drain or in
+ * the next one.
+ */
+public class LatencyHistogram {
+
+    // Constants
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKETS_HALF = SUB_BUCKETS / 2;
+    // values above 2^40 nanoseconds (about 18 minutes) are counted as this value
+    private static final int MAX_VALUE_BITS = 40;
+    private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+    private static final int BUCKETS_COUNT = indexOf(MAX_VALUE) + 1;
+
+    // Data members
+    private final AtomicLongArray counts;
+    private final AtomicLong max;
+
+
+    /**
+     * This is the Ctor of the class, the histogram starts empty.
+     */
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKETS_COUNT);
+        this.max = new AtomicLong();
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * This method counts the given value.
+     *
+     * @param value - non negative value (nanoseconds).
+     */
+    public void record(long value) {
+        long clampedValue = Math.min(Math.max(value, 0), MAX_VALUE);
+        counts.incrementAndGet(indexOf(clampedValue));
+        long currentMax = max.get();
+        while (clampedValue > currentMax && !max.compareAndSet(currentMax, clampedValue)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * This method reads the counted values and clears the histogram.
+     *
+     * @return Snapshot - the values that were counted since the last drain.
+     */
+    public Snapshot drain() {
+        long[] snapshotCounts = new long[BUCKETS_COUNT];
+        long totalCount = 0;
+        for (int i = 0; i < BUCKETS_COUNT; i++) {
+            snapshotCounts[i] = counts.getAndSet(i, 0);
+            totalCount += snapshotCounts[i];
+        }
+        return new Snapshot(snapshotCounts, totalCount, max.getAndSet(0));
+    }
+
+    // ~~~~~~~~~~~~~~~~~~ Private methods ~~~~~~~~~~~~~~~~~~~~~~~
+
+    /**
+     * @param value - value in [0, MAX_VALUE].
+     * @return int - the index of the bucket of the value. The values under SUB_BUCKETS have a bucket each,
+     * every following power of two range is split to SUB_BUCKETS_HALF buckets.
+     */
+    private static int indexOf(long value) {
+        int shift = Math.max(63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS + 1, 0);
+        return shift * SUB_BUCKETS_HALF + (int) (value >>> shift);
+    }
+
+    /**
+     * @param index - the index of a bucket.
+     * @return long - the highest value that is counted in the bucket.
+     */
+    private static long highestValueAt(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = index / SUB_BUCKETS_HALF - 1;
+        long subBucket = index - (long) shift * SUB_BUCKETS_HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * This class is an immutable copy of the counts of a histogram.
+     */
+    public static class Snapshot {
+
+        // Data members
+        private final long[] counts;
+        private final long totalCount;
+        private final long max;
+
+
+        /**
+         * This is the Ctor of the class
+         *
+         * @param counts     - the counts of the buckets.
+         * @param totalCount - the sum of the counts.
+         * @param max        - the max counted value.
+         */
+        private Snapshot(long[] counts, long totalCount, long max) {
+            this.counts = counts;
+            this.totalCount = totalCount;
+            this.max = max;
+        }
+
+        /**
+         * @param percentile - percentile in [0, 100].
+         * @return long - the value that the given percentile of the counted values are not above (up to the
+         * bucket precision), 0 if nothing was counted.
+         */
+        public long valueAtPercentile(double percentile) {
+            if (totalCount == 0) return 0;
+            long rank = Math.max((long) Math.ceil(percentile / 100 * totalCount), 1);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(highestValueAt(i), max);
+            }
+            return max;
+        }
+
+        /**
+         * @return long - the number of the counted values.
+         */
+        public long count() {
+            return totalCount;
+        }
+
+        /**
+         * @return long - the max counted value.
+         */
+        public long max() {
+            return max;
+        }
+    }
+
+}
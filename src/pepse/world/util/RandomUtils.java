@@ -1,10 +1,13 @@
 package pepse.util;
 
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 
 /**
  * This util class contains util random functions for our game randomization.
+ * These functions are not reproducible (like the seed of the game itself), everything that is generated
+ * from the seed draws its values from HashRandom. They use the generator of the calling thread, so they
+ * don't allocate a generator on every call.
  */
 public class RandomUtils {
 
@@ -15,11 +18,18 @@ public class RandomUtils {
      * @return boolean - if we got a random number under the given threshold or not.
      */
     public static boolean randBoolAccordThreshold(float threshold) {
-        return new Random().nextFloat() <= threshold;
+        return ThreadLocalRandom.current().nextFloat() <= threshold;
     }
 
+    /**
+     * This method is responsible for return a random int number in the range of min to max
+     *
+     * @param min - int start index (inclusive)
+     * @param max - int end index (exclusive)
+     * @return random int number
+     */
     public static int randomIntNumberInRange(int min, int max) {
-        return new Random().nextInt(max - min) + min;
+        return ThreadLocalRandom.current().nextInt(min, max);
     }
 
     /**
@@ -30,7 +40,7 @@ public class RandomUtils {
      * @return random float number
      */
     public static float randomFloatNumberInRange(float min, float max) {
-        return new Random().nextFloat() * (max - min) + min;
+        return ThreadLocalRandom.current().nextFloat() * (max - min) + min;
     }
-    
+
 }